@@ -0,0 +1,95 @@
+package benchmark;
+
+import static org.javersion.reflect.TypeDescriptors.NON_SYNTHETIC;
+
+import java.util.concurrent.TimeUnit;
+
+import org.javersion.reflect.AccessStrategy;
+import org.javersion.reflect.ConstructorDescriptor;
+import org.javersion.reflect.FieldDescriptor;
+import org.javersion.reflect.MethodDescriptor;
+import org.javersion.reflect.MethodSignature;
+import org.javersion.reflect.TypeDescriptor;
+import org.javersion.reflect.TypeDescriptors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Field get/set, method invocation and construction through core reflection vs MethodHandles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessStrategyBenchmark {
+
+    public static class Bean {
+
+        private String name = "name";
+
+        private int count;
+
+        public Bean() {}
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    @Param({ "REFLECTION", "METHOD_HANDLES" })
+    public String strategy;
+
+    private Bean bean;
+
+    private FieldDescriptor name;
+
+    private FieldDescriptor count;
+
+    private MethodDescriptor getCount;
+
+    private ConstructorDescriptor constructor;
+
+    @Setup
+    public void setup() throws Exception {
+        AccessStrategy accessStrategy = (AccessStrategy) AccessStrategy.class.getField(strategy).get(null);
+        TypeDescriptor type = new TypeDescriptors(NON_SYNTHETIC, accessStrategy).get(Bean.class);
+        bean = new Bean();
+        name = type.getField("name");
+        count = type.getField("count");
+        getCount = type.getMethods().get(new MethodSignature("getCount"));
+        constructor = type.getDefaultConstructor();
+    }
+
+    @Benchmark
+    public Object get_field() {
+        return name.get(bean);
+    }
+
+    @Benchmark
+    public void set_primitive_field() {
+        count.set(bean, 1);
+    }
+
+    @Benchmark
+    public Object invoke_method() {
+        return getCount.invoke(bean);
+    }
+
+    @Benchmark
+    public Object new_instance() {
+        return constructor.newInstance();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(AccessStrategyBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
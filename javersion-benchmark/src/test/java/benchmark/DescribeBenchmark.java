@@ -0,0 +1,78 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.javersion.object.DescribeContext;
+import org.javersion.object.TypeMappings;
+import org.javersion.object.Versionable;
+import org.javersion.object.mapping.DefaultMappingResolver;
+import org.javersion.object.mapping.JaversionMappingResolver;
+import org.javersion.object.types.ValueType;
+import org.javersion.path.Schema;
+import org.javersion.reflect.AccessStrategy;
+import org.javersion.reflect.TypeDescriptors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cold description of a versionable type: property tables generated by javersion-processor
+ * vs the reflective member walk. Both start from empty TypeDescriptors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DescribeBenchmark {
+
+    @Versionable
+    public static class Product {
+        public String name;
+        public String description;
+        public long price;
+        public int stock;
+        public List<Item> items = new ArrayList<>();
+        public Map<String, String> attributes;
+    }
+
+    @Versionable
+    public static class Item {
+        public String code;
+        public String label;
+        public int quantity;
+        public boolean active;
+    }
+
+    @Benchmark
+    public Schema<ValueType> generated() {
+        TypeMappings typeMappings = TypeMappings.builder()
+                .withTypeDescriptors(new TypeDescriptors(member -> !member.isSynthetic(),
+                        AccessStrategy.generated(AccessStrategy.REFLECTION)))
+                .build();
+        return new DescribeContext(typeMappings).describeSchema(Product.class);
+    }
+
+    @Benchmark
+    public Schema<ValueType> reflective() {
+        TypeMappings typeMappings = TypeMappings.builder()
+                .withTypeDescriptors(new TypeDescriptors(member -> !member.isSynthetic(), AccessStrategy.REFLECTION))
+                .withMappingResolvers(new JaversionMappingResolver(), new DefaultMappingResolver())
+                .build();
+        return new DescribeContext(typeMappings).describeSchema(Product.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DescribeBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.javersion.object.ObjectSerializer;
+import org.javersion.object.Versionable;
+import org.javersion.path.PropertyPath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Serialization and deserialization of a list of flat objects through BasicObjectType's precomputed plans.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectSerializerBenchmark {
+
+    @Versionable
+    public static class Product {
+        public String name;
+        public String description;
+        public long price;
+        public int stock;
+        public List<Item> items = new ArrayList<>();
+    }
+
+    @Versionable
+    public static class Item {
+        public String code;
+        public String label;
+        public int quantity;
+        public boolean active;
+    }
+
+    @Param({ "10", "100" })
+    public int items;
+
+    private final ObjectSerializer<Product> serializer = new ObjectSerializer<>(Product.class);
+
+    private Product product;
+
+    private Map<PropertyPath, Object> properties;
+
+    @Setup
+    public void setup() {
+        product = new Product();
+        product.name = "name";
+        product.description = "description";
+        product.price = 100;
+        product.stock = 5;
+        for (int i = 0; i < items; i++) {
+            Item item = new Item();
+            item.code = "code" + i;
+            item.label = "label" + i;
+            item.quantity = i;
+            item.active = i % 2 == 0;
+            product.items.add(item);
+        }
+        properties = serializer.toPropertyMap(product);
+    }
+
+    @Benchmark
+    public Map<PropertyPath, Object> serialize() {
+        return serializer.toPropertyMap(product);
+    }
+
+    @Benchmark
+    public Product deserialize() {
+        return serializer.fromPropertyMap(properties);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ObjectSerializerBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
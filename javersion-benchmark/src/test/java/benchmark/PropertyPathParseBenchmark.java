@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.javersion.path.PropertyPath;
+import org.javersion.path.parser.PropertyPathLexer;
+import org.javersion.path.parser.PropertyPathParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * PropertyPath.parse (hand written parser) vs. bare ANTLR parse tree construction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyPathParseBenchmark {
+
+    @Param({ "name", "parents[1].children[\"key\"].name", "list[].map{}.object.*[123456]" })
+    public String path;
+
+    @Benchmark
+    public PropertyPath handWritten() {
+        return PropertyPath.parse(path);
+    }
+
+    @Benchmark
+    public ParseTree antlr() {
+        PropertyPathLexer lexer = new PropertyPathLexer(new ANTLRInputStream(path));
+        return new PropertyPathParser(new CommonTokenStream(lexer)).parsePath();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PropertyPathParseBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import static org.javersion.path.PropertyPath.ROOT;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.javersion.path.PropertyPath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Sorting 100k PropertyPaths with PropertyPath.compareTo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyPathSortBenchmark {
+
+    private static final int COUNT = 100_000;
+
+    @Param({ "3", "8" })
+    public int depth;
+
+    private PropertyPath[] paths;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        paths = new PropertyPath[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            PropertyPath path = ROOT;
+            for (int j = 0; j < depth; j++) {
+                switch (random.nextInt(3)) {
+                    case 0: path = path.property("p" + random.nextInt(10)); break;
+                    case 1: path = path.index(random.nextInt(10)); break;
+                    default: path = path.key("k" + random.nextInt(10));
+                }
+            }
+            paths[i] = path;
+        }
+    }
+
+    @Benchmark
+    public PropertyPath[] sort() {
+        PropertyPath[] copy = paths.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PropertyPathSortBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
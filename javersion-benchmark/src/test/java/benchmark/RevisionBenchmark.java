@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.javersion.core.Revision;
+import org.javersion.core.RevisionGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Contention of Revision allocation: global CAS per revision vs. shared and thread local blocks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class RevisionBenchmark {
+
+    private final RevisionGenerator shared = RevisionGenerator.shared();
+
+    private final RevisionGenerator blocks = RevisionGenerator.blocks(64);
+
+    private final RevisionGenerator threadLocalBlocks = RevisionGenerator.threadLocalBlocks(64);
+
+    @Benchmark
+    public Revision newRevision() {
+        return new Revision();
+    }
+
+    @Benchmark
+    public Revision shared() {
+        return shared.next();
+    }
+
+    @Benchmark
+    public Revision blocks() {
+        return blocks.next();
+    }
+
+    @Benchmark
+    public Revision threadLocalBlocks() {
+        return threadLocalBlocks.next();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public Revision[] batch() {
+        return shared.next(64);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RevisionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -16,7 +16,11 @@
 package org.javersion.core;
 
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.*;
+import org.javersion.util.Check;
 import org.javersion.util.PersistentMap;
 import org.javersion.util.PersistentSortedMap;
 import org.javersion.util.PersistentTreeMap;
@@ -25,6 +29,7 @@ import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static com.google.common.collect.Iterables.getFirst;
 import static com.google.common.collect.Iterables.transform;
@@ -50,18 +55,41 @@ public abstract class AbstractVersionGraph<K, V, M,
 
     private final VersionNode<K, V, M> tip;
 
+    final Materialization materialization;
+
+    private static final int MERGE_CACHE_SIZE = 8;
+
+    private enum MergeKind { BRANCHES, REVISIONS }
+
+    /**
+     * Lazily initialized cache of merge results.
+     */
+    private volatile Cache<List<Object>, Merge<K, V, M>> mergeCache;
+
     public AbstractVersionGraph() {
-        this(PersistentTreeMap.<Revision, VersionNode<K, V, M>> empty(), null, null);
+        this(Materialization.EAGER);
+    }
+
+    protected AbstractVersionGraph(Materialization materialization) {
+        this(PersistentTreeMap.<Revision, VersionNode<K, V, M>> empty(), null, null, Check.notNull(materialization, "materialization"));
     }
 
     protected AbstractVersionGraph(VersionGraphBuilder<K, V, M, This, B> builder) {
-        this(builder.versionNodes.toPersistentMap(), builder.tip, builder.at);
+        this(builder.versionNodes.toPersistentMap(), builder.tip, builder.at, builder.materialization);
     }
 
-    private AbstractVersionGraph(PersistentMap<Revision, VersionNode<K, V, M>> versionNodes, VersionNode<K, V, M> tip, VersionNode<K, V, M> at) {
+    private AbstractVersionGraph(PersistentMap<Revision, VersionNode<K, V, M>> versionNodes, VersionNode<K, V, M> tip, VersionNode<K, V, M> at, Materialization materialization) {
         this.versionNodes = versionNodes;
         this.tip = tip;
         this.at = (at != null ? at : tip);
+        this.materialization = materialization;
+    }
+
+    /**
+     * @return Materialization inherited by graphs derived from this.
+     */
+    public final Materialization getMaterialization() {
+        return materialization;
     }
 
     @Override
@@ -105,11 +133,20 @@ public abstract class AbstractVersionGraph<K, V, M,
 
     @Override
     public final Merge<K, V, M> mergeBranches(Iterable<String> branches) {
-        List<VersionMerge<K, V, M>> mergedBranches = Lists.newArrayList();
+        List<Iterable<VersionNode<K, V, M>>> branchHeads = Lists.newArrayList();
+        ImmutableList.Builder<Object> key = ImmutableList.builder().add(MergeKind.BRANCHES);
         for (String branch : branches) {
-            mergedBranches.add(new VersionMerge<K, V, M>(getHeads(branch)));
+            Iterable<VersionNode<K, V, M>> heads = getHeads(branch);
+            branchHeads.add(heads);
+            key.add(ImmutableList.copyOf(transform(heads, VersionNode::getRevision)));
         }
-        return new BranchMerge<K, V, M>(mergedBranches);
+        return cachedMerge(key.build(), () -> {
+            List<VersionMerge<K, V, M>> mergedBranches = Lists.newArrayList();
+            for (Iterable<VersionNode<K, V, M>> heads : branchHeads) {
+                mergedBranches.add(new VersionMerge<K, V, M>(heads));
+            }
+            return new BranchMerge<K, V, M>(mergedBranches);
+        });
     }
 
     @Override
@@ -119,7 +156,35 @@ public abstract class AbstractVersionGraph<K, V, M,
 
     @Override
     public final Merge<K, V, M> mergeRevisions(Iterable<Revision> revisions) {
-        return new VersionMerge<K, V, M>(transform(revisions, this));
+        List<Revision> revisionList = ImmutableList.copyOf(revisions);
+        ImmutableList<Object> key = ImmutableList.builder().add(MergeKind.REVISIONS).addAll(revisionList).build();
+        return cachedMerge(key, () -> new VersionMerge<K, V, M>(transform(revisionList, this)));
+    }
+
+    /**
+     * Graph is immutable, so merges of the same heads can be shared.
+     *
+     * @param key merge kind followed by merged head revisions
+     */
+    private Merge<K, V, M> cachedMerge(List<Object> key, Supplier<Merge<K, V, M>> merge) {
+        Cache<List<Object>, Merge<K, V, M>> cache = mergeCache;
+        if (cache == null) {
+            mergeCache = cache = CacheBuilder.newBuilder()
+                    .concurrencyLevel(1)
+                    .maximumSize(MERGE_CACHE_SIZE)
+                    .build();
+        }
+        Merge<K, V, M> result = cache.getIfPresent(key);
+        if (result == null) {
+            result = merge.get();
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public final Map<K, V> changesBetween(Revision from, Revision to) {
+        return getVersionNode(from).changesTo(getVersionNode(to));
     }
 
     @Override
@@ -215,7 +280,26 @@ public abstract class AbstractVersionGraph<K, V, M,
         if (isEmpty()) {
             return new OptimizedGraph<>(self(), emptyList(), emptyList());
         }
-        return new Optimizer().optimize(keep);
+        return new Optimizer(null).optimize(keep);
+    }
+
+    /**
+     * Incremental optimization of versions committed after <code>previous</code> was optimized. Versions of
+     * the previously optimized graph are kept as they are and squash decisions are made only for the new
+     * versions, so the cost is proportional to the amount of new versions instead of the whole history.
+     *
+     * @param previous optimized graph that this graph is derived from by committing new versions
+     */
+    public OptimizedGraph<K, V, M, This> optimize(OptimizedGraph<K, V, M, This> previous, Predicate<VersionNode<K, V, M>> keep) {
+        Check.notNull(previous, "previous");
+        if (previous.getGraph().isEmpty()) {
+            return optimize(keep);
+        }
+        VersionNode<K, V, M> previousTip = previous.getGraph().getTip();
+        if (versionNodes.get(previousTip.revision) != previousTip) {
+            throw new IllegalArgumentException("Graph is not derived from the previously optimized graph");
+        }
+        return new Optimizer(previous).optimize(keep);
     }
 
     @SuppressWarnings("unchecked")
@@ -227,29 +311,57 @@ public abstract class AbstractVersionGraph<K, V, M,
     @NotThreadSafe
     private class Optimizer {
 
-        private final int size = versionNodes.size();
-
         /**
          * Child candidates: a version is always kept if it has more than one child that is also kept (LCA).
          */
-        private final Multimap<Revision, Revision> parentToChildRevisions = HashMultimap.create(size, 2);
+        private final Multimap<Revision, Revision> parentToChildRevisions;
         /**
          * Optimized child-to-parent relations.
          */
-        private final Multimap<Revision, Revision> childToParentRevisions = HashMultimap.create(size, 2);
+        private final Multimap<Revision, Revision> childToParentRevisions;
         /**
          * HashSet of kept revisions for quick check.
          */
-        private final Set<Revision> keptRevisions = new HashSet<>(size);
+        private final Set<Revision> keptRevisions;
         /**
          * Newest first list of kept nodes.
          */
-        private final List<VersionNode<K, V, M>> keptNodes = new ArrayList<>(size);
-        private final List<Revision> squashedRevisions = new ArrayList<>(size);
+        private final List<VersionNode<K, V, M>> keptNodes;
+        private final List<Revision> squashedRevisions;
         private final Revision tipRevision = getTip().revision;
+        /**
+         * Previously optimized graph whose versions are kept as they are or null for full optimization.
+         */
+        private final OptimizedGraph<K, V, M, This> previous;
+        private final VersionNode<K, V, M> previousTip;
+
+        Optimizer(OptimizedGraph<K, V, M, This> previous) {
+            this.previous = previous;
+            this.previousTip = previous != null ? previous.getGraph().getTip() : null;
+
+            // Only versions after previousTip are visited
+            int size = previous != null ? countVersionsAfter(previousTip) : versionNodes.size();
+            this.parentToChildRevisions = HashMultimap.create(size, 2);
+            this.childToParentRevisions = HashMultimap.create(size, 2);
+            this.keptRevisions = new HashSet<>(size);
+            this.keptNodes = new ArrayList<>(size);
+            this.squashedRevisions = new ArrayList<>(size);
+        }
+
+        private int countVersionsAfter(VersionNode<K, V, M> ancestor) {
+            int count = 0;
+            for (VersionNode<K, V, M> node = getTip(); node != ancestor; node = node.previousVersionNode) {
+                count++;
+            }
+            return count;
+        }
 
         public OptimizedGraph<K, V, M, This> optimize(Predicate<VersionNode<K, V, M>> keepPredicate) {
             for (VersionNode<K, V, M> node : getVersionNodes()) {
+                if (node == previousTip) {
+                    linkToPreviousVersions();
+                    break;
+                }
                 List<Revision> keptChildRevisions = parentToChildRevisions.removeAll(node.revision).stream()
                         .filter(childRevision -> isRequiredChild(node.revision, childRevision))
                         .collect(toList());
@@ -263,12 +375,48 @@ public abstract class AbstractVersionGraph<K, V, M,
             if (squashedRevisions.isEmpty()) {
                 return unmodifiableOptimizedGraph(
                         self(),
-                        Lists.transform(reverse(keptNodes), VersionNode::getRevision),
+                        withPreviousRevisions(Lists.transform(reverse(keptNodes), VersionNode::getRevision)),
                         squashedRevisions);
             }
             return toOptimizedGraph();
         }
 
+        /**
+         * Remaining parent-to-child relations point to versions of the previously optimized graph. Like
+         * with any kept parents, a previous version becomes a parent of a kept child only if it's not
+         * already contained by another parent of that child.
+         */
+        private void linkToPreviousVersions() {
+            Multimap<Revision, Revision> childToPreviousRevisions = HashMultimap.create();
+            parentToChildRevisions.entries().forEach(entry -> {
+                if (keptRevisions.contains(entry.getValue())) {
+                    childToPreviousRevisions.put(entry.getValue(), entry.getKey());
+                }
+            });
+            childToPreviousRevisions.asMap().forEach((childRevision, parentRevisions) -> {
+                for (Revision parentRevision : parentRevisions) {
+                    if (!hasAncestor(childRevision, parentRevision) && !containedByOther(parentRevision, parentRevisions)) {
+                        childToParentRevisions.put(childRevision, parentRevision);
+                    }
+                }
+            });
+        }
+
+        private boolean containedByOther(Revision revision, Collection<Revision> revisions) {
+            return revisions.stream()
+                    .anyMatch(other -> !other.equals(revision) && versionNodes.get(other).contains(revision));
+        }
+
+        /**
+         * @return unmodifiable view of previously kept revisions followed by newRevisions
+         */
+        private List<Revision> withPreviousRevisions(List<Revision> newRevisions) {
+            if (previous == null) {
+                return unmodifiableList(newRevisions);
+            }
+            return ConcatList.concat(previous.getKeptRevisions(), newRevisions);
+        }
+
         private boolean isRequiredChild(Revision revision, Revision childRevision) {
             return keptRevisions.contains(childRevision) && !hasAncestor(childRevision, revision);
         }
@@ -299,7 +447,7 @@ public abstract class AbstractVersionGraph<K, V, M,
         }
 
         private OptimizedGraph<K, V, M, This> toOptimizedGraph() {
-            B builder = newEmptyBuilder();
+            B builder = previous != null ? previous.getGraph().newBuilder() : newEmptyBuilder();
             List<Revision> keptRevisions = new ArrayList<>(keptNodes.size());
             for (int i = keptNodes.size() - 1; i >= 0; i--) {
                 VersionNode<K, V, M> node = keptNodes.get(i);
@@ -307,18 +455,23 @@ public abstract class AbstractVersionGraph<K, V, M,
                 Version<K, V, M> version = optimizedVersion(node, getParentRevisions(node.revision));
                 builder.add(version);
             }
-            return unmodifiableOptimizedGraph(builder.build(), keptRevisions, squashedRevisions);
+            return unmodifiableOptimizedGraph(builder.build(), withPreviousRevisions(keptRevisions), squashedRevisions);
         }
 
         private OptimizedGraph<K, V, M, This> unmodifiableOptimizedGraph(This graph, List<Revision> keptRevisions, List<Revision> squashedRevisions) {
-            return new OptimizedGraph<>(graph, unmodifiableList(keptRevisions), unmodifiableList(squashedRevisions));
+            return new OptimizedGraph<>(graph, keptRevisions, unmodifiableList(squashedRevisions));
         }
 
 
         private Version<K, V, M> optimizedVersion(VersionNode<K, V, M> node, Collection<Revision> parents) {
+            Map<K, V> changeset = new HashMap<>(node.getProperties());
+            // Properties removed after kept parents
+            for (Revision parent : parents) {
+                versionNodes.get(parent).getProperties().keySet().forEach(key -> changeset.putIfAbsent(key, null));
+            }
             return new Version.Builder<K, V, M>(node.revision)
                     .parents(parents)
-                    .changeset(node.getProperties())
+                    .changeset(changeset)
                     .type(node.type)
                     .branch(node.branch)
                     .meta(node.meta)
@@ -326,4 +479,56 @@ public abstract class AbstractVersionGraph<K, V, M,
         }
     }
 
+    /**
+     * Unmodifiable concatenation of lists. Nested concatenations are flattened so that
+     * repeated incremental optimizations don't deepen lookups.
+     */
+    private static final class ConcatList<T> extends AbstractList<T> implements RandomAccess {
+
+        static <T> List<T> concat(List<T> first, List<T> second) {
+            List<List<T>> segments = new ArrayList<>();
+            addSegments(first, segments);
+            addSegments(second, segments);
+            return new ConcatList<>(segments);
+        }
+
+        private static <T> void addSegments(List<T> list, List<List<T>> segments) {
+            if (list instanceof ConcatList) {
+                segments.addAll(((ConcatList<T>) list).segments);
+            } else if (!list.isEmpty()) {
+                segments.add(list);
+            }
+        }
+
+        private final List<List<T>> segments;
+
+        /**
+         * Exclusive end index of each segment
+         */
+        private final int[] ends;
+
+        private ConcatList(List<List<T>> segments) {
+            this.segments = segments;
+            this.ends = new int[segments.size()];
+            int end = 0;
+            for (int i = 0; i < ends.length; i++) {
+                end += segments.get(i).size();
+                ends[i] = end;
+            }
+        }
+
+        @Override
+        public T get(int index) {
+            Preconditions.checkElementIndex(index, size());
+            int segment = Arrays.binarySearch(ends, index);
+            segment = segment < 0 ? -segment - 1 : segment + 1;
+            return segments.get(segment).get(segment == 0 ? index : index - ends[segment - 1]);
+        }
+
+        @Override
+        public int size() {
+            return ends.length == 0 ? 0 : ends[ends.length - 1];
+        }
+    }
+
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.javersion.util.Merger;
+import org.javersion.util.PersistentHashMap;
+
+/**
+ * Compact representation of revisions merged into a Merge (or VersionNode).
+ * <p>
+ * Revisions of a graph are partitioned into chains: a version continues the chain of a merged
+ * parent if that parent is the last revision of it's chain, otherwise it starts a new chain.
+ * As each revision of a chain contains it's predecessor, a set of merged revisions can be
+ * represented as a "vector clock" of highest merged position per chain. Positions of
+ * revisions are stored in a graph level {@link Index} that is shared by all merges.
+ * <p>
+ * For linear history there is only one chain and merging two ancestries costs O(changed chains).
+ */
+@Immutable
+public final class Ancestry {
+
+    private static final Merger<Map.Entry<Integer, Integer>> MAX_POSITION = new Merger<Map.Entry<Integer, Integer>>() {
+        @Override
+        public boolean merge(Map.Entry<Integer, Integer> oldEntry, Map.Entry<Integer, Integer> newEntry) {
+            return newEntry.getValue() > oldEntry.getValue();
+        }
+    };
+
+    public static final Ancestry EMPTY = new Ancestry(Index.EMPTY, PersistentHashMap.empty());
+
+    final Index index;
+
+    /**
+     * chain -> highest merged position within that chain
+     */
+    private final PersistentHashMap<Integer, Integer> clock;
+
+    private Ancestry(Index index, PersistentHashMap<Integer, Integer> clock) {
+        this.index = index;
+        this.clock = clock;
+    }
+
+    Ancestry withIndex(Index index) {
+        return index == this.index ? this : new Ancestry(index, clock);
+    }
+
+    public boolean contains(Revision revision) {
+        long position = index.positionOf(revision);
+        if (position < 0) {
+            return false;
+        }
+        Integer maxPosition = clock.get(chain(position));
+        return maxPosition != null && maxPosition >= index(position);
+    }
+
+    public boolean isEmpty() {
+        return clock.isEmpty();
+    }
+
+    /**
+     * @return Union of this and other.
+     */
+    public Ancestry merge(Ancestry other) {
+        Index newIndex = index.size() >= other.index.size() ? index : other.index;
+        if (clock.isEmpty()) {
+            return new Ancestry(newIndex, other.clock);
+        }
+        return new Ancestry(newIndex, clock.mergeAll(other.clock, MAX_POSITION));
+    }
+
+    /**
+     * Add a new revision. If the revision is not yet indexed, it continues the chain of
+     * first already merged parent that is the last revision of it's chain.
+     */
+    public Ancestry add(Revision revision, Iterable<Revision> parentRevisions) {
+        Index newIndex = index;
+        long position = index.positionOf(revision);
+        if (position < 0) {
+            newIndex = index.add(revision, nextPosition(parentRevisions));
+            position = newIndex.positionOf(revision);
+        }
+        return new Ancestry(newIndex, clock.assoc(chain(position), index(position)));
+    }
+
+    private long nextPosition(Iterable<Revision> parentRevisions) {
+        for (Revision parentRevision : parentRevisions) {
+            if (contains(parentRevision)) {
+                long position = index.positionOf(parentRevision);
+                if (index.isLastOfChain(position)) {
+                    return position + 1;
+                }
+            }
+        }
+        return position(index.chainCount(), 0);
+    }
+
+    static int chain(long position) {
+        return (int) (position >>> 32);
+    }
+
+    static int index(long position) {
+        return (int) position;
+    }
+
+    static long position(int chain, int index) {
+        return ((long) chain << 32) | index;
+    }
+
+    /**
+     * Graph level index of revision positions: <code>chain &lt;&lt; 32 | index</code>.
+     */
+    @Immutable
+    static final class Index {
+
+        static final Index EMPTY = new Index(PersistentHashMap.empty(), PersistentHashMap.empty());
+
+        private final PersistentHashMap<Revision, Long> positions;
+
+        /**
+         * chain -> number of revisions in chain
+         */
+        private final PersistentHashMap<Integer, Integer> chainLengths;
+
+        private Index(PersistentHashMap<Revision, Long> positions, PersistentHashMap<Integer, Integer> chainLengths) {
+            this.positions = positions;
+            this.chainLengths = chainLengths;
+        }
+
+        long positionOf(Revision revision) {
+            Long position = positions.get(revision);
+            return position != null ? position : -1;
+        }
+
+        int size() {
+            return positions.size();
+        }
+
+        int chainCount() {
+            return chainLengths.size();
+        }
+
+        boolean isLastOfChain(long position) {
+            return chainLengths.get(chain(position)) == index(position) + 1;
+        }
+
+        Index add(Revision revision, long position) {
+            return new Index(positions.assoc(revision, position), chainLengths.assoc(chain(position), index(position) + 1));
+        }
+    }
+}
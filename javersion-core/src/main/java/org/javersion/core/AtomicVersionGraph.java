@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.javersion.util.Check;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Thread safe holder of an immutable VersionGraph. Updates are applied with compare-and-set on the
+ * current graph and retried against the latest graph if another thread got there first. As versions
+ * refer to their parents explicitly, a version stays valid for a newer graph as long as it's parents
+ * are still found.
+ * <p>
+ * {@link #submit(Version)} queues the version so that concurrent submitters are committed in batches:
+ * the thread that drains the queue commits all queued versions with a single compare-and-set and
+ * completes the submissions of other threads, which wait parked until then.
+ */
+@ThreadSafe
+public class AtomicVersionGraph<K, V, M, G extends AbstractVersionGraph<K, V, M, G, ?>> {
+
+    private final AtomicReference<G> graph;
+
+    private final Queue<Submission<K, V, M, G>> queue = new ConcurrentLinkedQueue<>();
+
+    public AtomicVersionGraph(G graph) {
+        this.graph = new AtomicReference<>(Check.notNull(graph, "graph"));
+    }
+
+    public G get() {
+        return graph.get();
+    }
+
+    /**
+     * Replace current graph, e.g. with an optimized graph.
+     */
+    public void set(G graph) {
+        this.graph.set(Check.notNull(graph, "graph"));
+    }
+
+    public G commit(Version<K, V, M> version) {
+        Check.notNull(version, "version");
+        return update(current -> current.commit(version));
+    }
+
+    public G commit(Iterable<? extends Version<K, V, M>> versions) {
+        List<? extends Version<K, V, M>> list = ImmutableList.copyOf(versions);
+        return update(current -> current.commit(list));
+    }
+
+    /**
+     * Apply side effect free <code>fn</code> to current graph until it succeeds to replace the graph.
+     */
+    public G update(UnaryOperator<G> fn) {
+        while (true) {
+            G current = graph.get();
+            G next = fn.apply(current);
+            if (graph.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Queue version to be committed in a batch with concurrently submitted versions.
+     *
+     * @return a graph containing the version
+     */
+    public G submit(Version<K, V, M> version) {
+        Check.notNull(version, "version");
+        Submission<K, V, M, G> submission = new Submission<>(version);
+        queue.add(submission);
+        commitQueued();
+        try {
+            // Completed by this or another thread that drained the queue
+            return submission.join();
+        } catch (CompletionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Commit all queued versions.
+     *
+     * @return current graph
+     */
+    public G commitQueued() {
+        List<Submission<K, V, M, G>> batch = new ArrayList<>();
+        Submission<K, V, M, G> submission;
+        while ((submission = queue.poll()) != null) {
+            batch.add(submission);
+        }
+        if (batch.isEmpty()) {
+            return graph.get();
+        }
+        try {
+            G current;
+            try {
+                current = commit(Lists.transform(batch, s -> s.version));
+            } catch (RuntimeException e) {
+                return commitSeparately(batch);
+            }
+            batch.forEach(s -> s.complete(current));
+            return current;
+        } catch (Throwable t) {
+            // Never leave submitters waiting
+            batch.forEach(s -> s.completeExceptionally(t));
+            throw t;
+        }
+    }
+
+    private G commitSeparately(List<Submission<K, V, M, G>> batch) {
+        G current = graph.get();
+        for (Submission<K, V, M, G> submission : batch) {
+            try {
+                current = commit(submission.version);
+                submission.complete(current);
+            } catch (RuntimeException e) {
+                submission.completeExceptionally(e);
+            }
+        }
+        return current;
+    }
+
+    private static final class Submission<K, V, M, G> extends CompletableFuture<G> {
+
+        final Version<K, V, M> version;
+
+        Submission(Version<K, V, M> version) {
+            this.version = version;
+        }
+    }
+}
@@ -20,6 +20,12 @@ import static org.javersion.util.Check.notNull;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.javersion.util.PersistentHashMap;
 
 import com.google.common.base.MoreObjects;
 
@@ -102,6 +108,72 @@ public final class Diff {
         return diff;
     }
 
+    /**
+     * {@link #diff(Map, Map)} of <code>from</code> and entries of <code>to</code> accepted one by one, so that
+     * <code>to</code> need not be materialized. Each key should be accepted only once.
+     * <p>
+     * Accepted keys are dissociated from (a persistent view of) <code>from</code>, so that the keys left
+     * in the end are the removed ones. <code>from</code> itself is not modified.
+     */
+    public static <K, V> Incremental<K, V> incremental(PersistentHashMap<K, V> from) {
+        return incremental(from, Function.identity());
+    }
+
+    /**
+     * Incremental diff against <code>from</code> with values given by <code>valueOf</code>,
+     * e.g. {@link VersionProperty#value} of {@link Merge#getMergedProperties()}.
+     * Keys of <code>from</code> with null values are treated as missing.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, T, V> Incremental<K, V> incremental(PersistentHashMap<K, T> from, Function<? super T, ? extends V> valueOf) {
+        notNull(from, "from");
+        notNull(valueOf, "valueOf");
+        return new Incremental<>(from, (Function<Object, ? extends V>) valueOf);
+    }
+
+    @NotThreadSafe
+    public static final class Incremental<K, V> implements BiConsumer<K, V> {
+
+        /**
+         * Entries of from that are not accepted (yet)
+         */
+        private PersistentHashMap<K, ?> remaining;
+
+        private final Function<Object, ? extends V> valueOf;
+
+        private final Map<K, V> diff = new HashMap<>();
+
+        private Incremental(PersistentHashMap<K, ?> from, Function<Object, ? extends V> valueOf) {
+            this.remaining = from;
+            this.valueOf = valueOf;
+        }
+
+        @Override
+        public void accept(K key, V newValue) {
+            V oldValue = null;
+            if (remaining.containsKey(key)) {
+                oldValue = valueOf.apply(remaining.get(key));
+                remaining = remaining.dissoc(key);
+            }
+            if (!Objects.equals(newValue, oldValue)) {
+                diff.put(key, newValue);
+            }
+        }
+
+        /**
+         * @return diff of accepted entries with removed keys of from mapped to null
+         */
+        public Map<K, V> getDiff() {
+            Map<K, V> result = new HashMap<>(diff);
+            for (Entry<K, ?> entry : remaining) {
+                if (valueOf.apply(entry.getValue()) != null) {
+                    result.put(entry.getKey(), null);
+                }
+            }
+            return result;
+        }
+    }
+
     private static <K, V> int diffSizeEstimate(int from, int to) {
         int estimate = max(to, from);
         return estimate + (estimate + 2) / 3;
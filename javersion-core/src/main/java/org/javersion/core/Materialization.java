@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.javersion.util.Check;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Defines which VersionNodes of a graph keep their merged state (properties and conflicts) in memory.
+ * <p>
+ * By default ({@link #EAGER}) every node is materialized. With {@link #checkpoints(int, long)} only
+ * every Nth node (counted as distance from the nearest checkpoint along parent links) keeps it's merged
+ * state. Other nodes keep only their changeset and rebuild merged state on demand from their parents.
+ * Rebuilt states are memoized in a bounded cache shared by all graphs using the same Materialization.
+ * <p>
+ * With {@link #LAZY} the builder doesn't merge properties at all. Merged state of a node is computed
+ * when first accessed (e.g. by {@link VersionGraph#mergeBranches(String...)} or {@link VersionGraph#at(Revision)})
+ * and kept by the node after that. This makes loading long histories cheap when only heads are read.
+ */
+@ThreadSafe
+public abstract class Materialization {
+
+    public static final Materialization EAGER = new Materialization() {
+        @Override
+        boolean isCheckpoint(int distance) {
+            return true;
+        }
+    };
+
+    public static final Materialization LAZY = new Materialization() {
+        @Override
+        boolean isLazy() {
+            return true;
+        }
+
+        @Override
+        boolean isCheckpoint(int distance) {
+            return false;
+        }
+    };
+
+    /**
+     * @param interval maximum distance of a node from it's nearest checkpoint
+     * @param cacheSize maximum number of rebuilt merge states to keep in memory
+     */
+    public static Materialization checkpoints(int interval, long cacheSize) {
+        return new Checkpoints(interval, cacheSize);
+    }
+
+    Materialization() {}
+
+    boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * @param distance from nearest materialized ancestor
+     */
+    abstract boolean isCheckpoint(int distance);
+
+    /**
+     * @return merged state of a node that is not a checkpoint, rebuilt by <code>loader</code> unless remembered
+     */
+    <K, V> MergeState<K, V> get(VersionNode<K, V, ?> node, Supplier<MergeState<K, V>> loader) {
+        return loader.get();
+    }
+
+    /**
+     * Remember merged state of a node that is not a checkpoint. Not remembered by default.
+     */
+    <K, V> void put(VersionNode<K, V, ?> node, MergeState<K, V> state) {}
+
+    private static final class Checkpoints extends Materialization {
+
+        private final int interval;
+
+        private final Cache<VersionNode<?, ?, ?>, MergeState<?, ?>> cache;
+
+        Checkpoints(int interval, long cacheSize) {
+            Check.that(interval > 0, "interval should be > 0");
+            Check.that(cacheSize >= 0, "cacheSize should be >= 0");
+            this.interval = interval;
+            this.cache = CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .maximumSize(cacheSize)
+                    .build();
+        }
+
+        @Override
+        boolean isCheckpoint(int distance) {
+            return distance >= interval;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <K, V> MergeState<K, V> get(VersionNode<K, V, ?> node, Supplier<MergeState<K, V>> loader) {
+            MergeState<K, V> state = (MergeState<K, V>) cache.getIfPresent(node);
+            if (state == null) {
+                state = loader.get();
+                cache.put(node, state);
+            }
+            return state;
+        }
+
+        @Override
+        <K, V> void put(VersionNode<K, V, ?> node, MergeState<K, V> state) {
+            cache.put(node, state);
+        }
+    }
+}
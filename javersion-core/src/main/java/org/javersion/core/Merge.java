@@ -20,13 +20,15 @@ import static com.google.common.collect.Maps.filterKeys;
 import static com.google.common.collect.Maps.filterValues;
 import static com.google.common.collect.Maps.transformValues;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.annotation.concurrent.Immutable;
 
+import org.javersion.util.DiffHandler;
 import org.javersion.util.PersistentHashMap;
-import org.javersion.util.PersistentHashSet;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
@@ -38,19 +40,32 @@ public abstract class Merge<K, V, M> {
     public final Function<VersionProperty<V>, V> getVersionPropertyValue =
             input -> input != null ? input.value : null;
 
-    public final PersistentHashMap<K, VersionProperty<V>> mergedProperties;
+    public final Ancestry ancestry;
 
-    public final PersistentHashSet<Revision> mergedRevisions;
-
-    public final Multimap<K, VersionProperty<V>> conflicts;
+    /**
+     * Null if merged state is materialized on demand by subclass.
+     */
+    private final MergeState<K, V> state;
 
     protected Merge(MergeBuilder<K, V, M> mergeBuilder) {
-        this.mergedProperties = mergeBuilder.getMergedProperties();
-        this.mergedRevisions = mergeBuilder.getMergedRevisions();
-        this.conflicts = mergeBuilder.getConflicts();
+        this.state = mergeBuilder.getMergeState();
+        this.ancestry = mergeBuilder.getAncestry();
         setMergeHeads(mergeBuilder.getHeads());
     }
 
+    Merge(Ancestry ancestry) {
+        this.state = null;
+        this.ancestry = ancestry;
+    }
+
+    MergeState<K, V> getMergeState() {
+        return state;
+    }
+
+    public PersistentHashMap<K, VersionProperty<V>> getMergedProperties() {
+        return getMergeState().mergedProperties;
+    }
+
     public abstract Set<Revision> getMergeHeads();
 
     protected abstract void setMergeHeads(Set<Revision> heads);
@@ -64,7 +79,7 @@ public abstract class Merge<K, V, M> {
         final Map<K, V> newPropertiesFiltered = filterKeys(newProperties, filter);
 
         Map<K, V> diff = Diff.diff(oldPropertiesFiltered, newPropertiesFiltered);
-        conflicts.keySet().stream().forEach(k -> {
+        getConflicts().keySet().stream().forEach(k -> {
             // Mark persistent conflict resolved by default
             if (!diff.containsKey(k) && newPropertiesFiltered.containsKey(k)) {
                 diff.put(k, newProperties.get(k));
@@ -73,19 +88,53 @@ public abstract class Merge<K, V, M> {
         return diff;
     }
 
+    /**
+     * Changes required to get from this merge to <code>to</code> in the same format as {@link Diff#diff(Map, Map)}.
+     * Property tries shared between the two merges are skipped, so the cost is proportional to the
+     * amount of changes instead of the size of properties.
+     */
+    public Map<K, V> changesTo(Merge<K, V, ?> to) {
+        final Map<K, V> diff = new HashMap<>();
+        getMergedProperties().diff(to.getMergedProperties(), new DiffHandler<Map.Entry<K, VersionProperty<V>>>() {
+            @Override
+            public void added(Map.Entry<K, VersionProperty<V>> newEntry) {
+                V newValue = newEntry.getValue().value;
+                if (newValue != null) {
+                    diff.put(newEntry.getKey(), newValue);
+                }
+            }
+
+            @Override
+            public void removed(Map.Entry<K, VersionProperty<V>> oldEntry) {
+                if (oldEntry.getValue().value != null) {
+                    diff.put(oldEntry.getKey(), null);
+                }
+            }
+
+            @Override
+            public void changed(Map.Entry<K, VersionProperty<V>> oldEntry, Map.Entry<K, VersionProperty<V>> newEntry) {
+                V newValue = newEntry.getValue().value;
+                if (!Objects.equals(oldEntry.getValue().value, newValue)) {
+                    diff.put(newEntry.getKey(), newValue);
+                }
+            }
+        });
+        return diff;
+    }
+
     public Map<K, V> getProperties() {
         return filterValues(getPropertiesAsPlainMap(), notNull());
     }
 
     private Map<K, V> getPropertiesAsPlainMap() {
-        return transformValues(mergedProperties.asMap(), getVersionPropertyValue);
+        return transformValues(getMergedProperties().asMap(), getVersionPropertyValue);
     }
 
     public Multimap<K, VersionProperty<V>> getConflicts() {
-        return conflicts;
+        return getMergeState().conflicts;
     }
 
     public boolean contains(Revision revision) {
-        return mergedRevisions.contains(revision);
+        return ancestry.contains(revision);
     }
 }
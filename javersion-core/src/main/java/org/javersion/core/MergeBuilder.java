@@ -15,6 +15,7 @@
  */
 package org.javersion.core;
 
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
@@ -38,16 +39,30 @@ public class MergeBuilder<K, V, M> {
 
     private MutableHashMap<K, VersionProperty<V>> mergedProperties = new MutableHashMap<>();
 
-    private MutableHashSet<Revision> mergedRevisions = new MutableHashSet<>();
+    private Ancestry ancestry;
 
     private final ArrayListMultimap<K, VersionProperty<V>> conflicts = ArrayListMultimap.create();
 
     private final Set<Revision> heads = Sets.newHashSet();
 
+    /**
+     * Effective changes of overwrite: properties that actually got overwritten.
+     */
+    private final MutableHashMap<K, V> changeset = new MutableHashMap<>();
+
     public MergeBuilder() {
+        this(Ancestry.Index.EMPTY);
+    }
+
+    /**
+     * @param ancestryIndex graph level index of revisions
+     */
+    MergeBuilder(Ancestry.Index ancestryIndex) {
+        this.ancestry = Ancestry.EMPTY.withIndex(ancestryIndex);
     }
 
     public MergeBuilder(Iterable<? extends Merge<K, V, M>> nodes) {
+        this();
         mergeAll(nodes);
     }
 
@@ -57,10 +72,19 @@ public class MergeBuilder<K, V, M> {
         return mergedProperties.toPersistentMap();
     }
 
-    public PersistentHashSet<Revision> getMergedRevisions() {
+    MergeState<K, V> getMergeState() {
+        return new MergeState<>(getMergedProperties(), getConflicts());
+    }
+
+    PersistentHashMap<K, V> getChangeset() {
+        locked = true;
+        return changeset.toPersistentMap();
+    }
+
+    public Ancestry getAncestry() {
         ensureInitialized();
         locked = true;
-        return mergedRevisions.toPersistentSet();
+        return ancestry;
     }
 
     public Multimap<K, VersionProperty<V>> getConflicts() {
@@ -77,6 +101,10 @@ public class MergeBuilder<K, V, M> {
 
     public final MergeBuilder<K, V, M> overwrite(Version<K, V, M> version) {
         Check.notNull(version, "version");
+        return overwrite(version.revision, version.parentRevisions, version.changeset);
+    }
+
+    final MergeBuilder<K, V, M> overwrite(Revision revision, Set<Revision> parentRevisions, Map<K, V> changeset) {
         ensureNotLocked();
         ensureInitialized();
 
@@ -93,14 +121,17 @@ public class MergeBuilder<K, V, M> {
             }
         };
 
-        version.changeset.forEach((path, value) -> {
-            VersionProperty<V> versionProperty = new VersionProperty<V>(version.revision, value);
+        changeset.forEach((path, value) -> {
+            VersionProperty<V> versionProperty = new VersionProperty<V>(revision, value);
             mergedProperties.merge(path, versionProperty, overwriteMerger);
+            if (mergedProperties.get(path) == versionProperty) {
+                this.changeset.put(path, value);
+            }
             conflicts.removeAll(path);
         });
-        heads.removeAll(version.parentRevisions);
-        heads.add(version.revision);
-        mergedRevisions.add(version.revision);
+        heads.removeAll(parentRevisions);
+        heads.add(revision);
+        ancestry = ancestry.add(revision, parentRevisions);
         return this;
     }
 
@@ -124,15 +155,15 @@ public class MergeBuilder<K, V, M> {
         } else {
             nextVersion(node);
         }
-        conflicts.putAll(node.conflicts);
+        conflicts.putAll(node.getConflicts());
         return this;
     }
 
     private void nextVersion(final Merge<K, V, M> node) {
-        heads.removeAll(node.mergedRevisions.asSet());
+        heads.removeIf(node::contains);
         boolean newHeads = false;
         for (Revision mergeHead : node.getMergeHeads()) {
-            if (!mergedRevisions.contains(mergeHead)) {
+            if (!ancestry.contains(mergeHead)) {
                 newHeads = true;
                 heads.add(mergeHead);
             }
@@ -150,11 +181,11 @@ public class MergeBuilder<K, V, M> {
                 VersionProperty<V> nextValue = newEntry.getValue();
 
                 // Keep prevValue if nextValue is from common ancestor
-                if (mergedRevisions.contains(nextValue.revision)) {
+                if (ancestry.contains(nextValue.revision)) {
                     return false;
                 }
                 // Keep nextValue if prevValue is from common ancestor
-                else if (node.mergedRevisions.contains(prevValue.revision)) {
+                else if (node.contains(prevValue.revision)) {
                     return true;
                 }
                 // Keep older value if there's no change
@@ -168,8 +199,9 @@ public class MergeBuilder<K, V, M> {
 
             }
         };
-        mergedProperties.mergeAll(node.mergedProperties, merger);
-        mergedRevisions.addAllFrom(node.mergedRevisions);
+        // Structural merge: subtrees shared with a common ancestor are adopted without visiting entries
+        mergedProperties.mergeAll(node.getMergedProperties(), merger);
+        ancestry = ancestry.merge(node.ancestry);
     }
 
     private boolean handleMergeConflict(K key, VersionProperty<V> prevValue, VersionProperty<V> nextValue) {
@@ -184,8 +216,8 @@ public class MergeBuilder<K, V, M> {
 
     private void firstVersion(final Merge<K, V, M> node) {
         first = false;
-        mergedProperties = node.mergedProperties.toMutableMap();
-        mergedRevisions = node.mergedRevisions.toMutableSet();
+        mergedProperties = node.getMergedProperties().toMutableMap();
+        ancestry = ancestry.merge(node.ancestry);
         heads.addAll(node.getMergeHeads());
     }
 
@@ -197,7 +229,6 @@ public class MergeBuilder<K, V, M> {
         if (first) {
             first = false;
             mergedProperties = new MutableHashMap<>();
-            mergedRevisions = new MutableHashSet<>();
         }
     }
 
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.javersion.util.PersistentHashMap;
+
+import com.google.common.collect.Multimap;
+
+/**
+ * Merged properties and conflicts of a Merge.
+ */
+@Immutable
+final class MergeState<K, V> {
+
+    final PersistentHashMap<K, VersionProperty<V>> mergedProperties;
+
+    final Multimap<K, VersionProperty<V>> conflicts;
+
+    MergeState(PersistentHashMap<K, VersionProperty<V>> mergedProperties, Multimap<K, VersionProperty<V>> conflicts) {
+        this.mergedProperties = mergedProperties;
+        this.conflicts = conflicts;
+    }
+}
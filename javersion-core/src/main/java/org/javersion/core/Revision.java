@@ -98,17 +98,24 @@ public final class Revision implements Comparable<Revision> {
     }
 
     public static long newUniqueTime(final long currentTimeMillis) {
+        return reserveUniqueTimes(currentTimeMillis, 1);
+    }
+
+    /**
+     * Reserve a block of <code>count</code> consecutive unique timeSeq values with a single CAS.
+     *
+     * @return first reserved timeSeq
+     */
+    public static long reserveUniqueTimes(final long currentTimeMillis, final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count should be > 0");
+        }
         final long timeSeq = currentTimeMillis << 16;
         while (true) {
             long lastTime = atomicLastTime.get();
-            if (lastTime < timeSeq) {
-                if (atomicLastTime.compareAndSet(lastTime, timeSeq)) {
-                    return timeSeq;
-                }
-            } else {
-                if (atomicLastTime.compareAndSet(lastTime, lastTime + 1)) {
-                    return lastTime + 1;
-                }
+            long first = lastTime < timeSeq ? timeSeq : lastTime + 1;
+            if (atomicLastTime.compareAndSet(lastTime, first + count - 1)) {
+                return first;
             }
         }
     }
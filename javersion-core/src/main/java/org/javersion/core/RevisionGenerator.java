@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.javersion.util.Check;
+
+/**
+ * Source of new Revisions. Revisions of all generators (and <code>new Revision()</code>) share
+ * the same JVM wide timeSeq sequence, so they are unique per node.
+ * <p>
+ * {@link #shared(long)} reserves each timeSeq separately from the global sequence (like
+ * <code>new Revision()</code>), so its revisions are also increasing per node: a revision is
+ * greater than any revision generated before it.
+ * <p>
+ * {@link #blocks(long, int)} reserves blocks of timeSeq values from the global sequence and hands
+ * them out to all threads in order, so its revisions are increasing per generator: a revision is
+ * greater than any revision of the same generator generated before it. Use one generator per
+ * VersionGraph (e.g. for bulk imports) so that a version is always greater than its parents.
+ * <p>
+ * {@link #threadLocalBlocks(long, int)} reserves blocks per thread, so that concurrent threads
+ * don't contend at all. <b>Its revisions are increasing only per thread.</b> A thread may return
+ * a revision that is less than one already returned by another thread. Merge resolves
+ * conflicting properties by revision order, so a version built on a parent revision from
+ * another thread could lose to its own parent. Use it only for documents generated by one
+ * thread each.
+ * <p>
+ * Blocks are refilled only when used up, so the time of a revision is the time its block was
+ * reserved.
+ */
+@ThreadSafe
+public abstract class RevisionGenerator {
+
+    public static RevisionGenerator shared() {
+        return shared(Revision.NODE);
+    }
+
+    public static RevisionGenerator shared(long node) {
+        return new Shared(node);
+    }
+
+    /**
+     * @see #blocks(long, int)
+     */
+    public static RevisionGenerator blocks(int blockSize) {
+        return blocks(Revision.NODE, blockSize);
+    }
+
+    /**
+     * Revisions that are unique per node and increasing per generator.
+     */
+    public static RevisionGenerator blocks(long node, int blockSize) {
+        return new Blocks(node, blockSize);
+    }
+
+    /**
+     * @see #threadLocalBlocks(long, int)
+     */
+    public static RevisionGenerator threadLocalBlocks(int blockSize) {
+        return threadLocalBlocks(Revision.NODE, blockSize);
+    }
+
+    /**
+     * Revisions that are unique per node but increasing only per thread. Not for versions of a shared graph.
+     */
+    public static RevisionGenerator threadLocalBlocks(long node, int blockSize) {
+        return new ThreadLocalBlocks(node, blockSize);
+    }
+
+    protected final long node;
+
+    protected RevisionGenerator(long node) {
+        this.node = node;
+    }
+
+    public abstract Revision next();
+
+    /**
+     * @return <code>count</code> increasing revisions reserved as one block
+     */
+    public Revision[] next(int count) {
+        Revision[] revisions = new Revision[count];
+        if (count > 0) {
+            long timeSeq = Revision.reserveUniqueTimes(currentTimeMillis(), count);
+            for (int i = 0; i < count; i++) {
+                revisions[i] = new Revision(timeSeq + i, node);
+            }
+        }
+        return revisions;
+    }
+
+    private static final class Shared extends RevisionGenerator {
+
+        Shared(long node) {
+            super(node);
+        }
+
+        @Override
+        public Revision next() {
+            return new Revision(Revision.newUniqueTime(), node);
+        }
+    }
+
+    private static final class Blocks extends RevisionGenerator {
+
+        private final int blockSize;
+
+        private final AtomicReference<SharedBlock> block;
+
+        Blocks(long node, int blockSize) {
+            super(node);
+            Check.that(blockSize > 0, "blockSize should be > 0");
+            this.blockSize = blockSize;
+            this.block = new AtomicReference<>(new SharedBlock(0, 0));
+        }
+
+        @Override
+        public Revision next() {
+            while (true) {
+                SharedBlock current = block.get();
+                // Once used up, a block stays used up, so a value is never taken from a replaced block
+                long timeSeq = current.next.getAndIncrement();
+                if (timeSeq < current.end) {
+                    return new Revision(timeSeq, node);
+                }
+                long first = Revision.reserveUniqueTimes(currentTimeMillis(), blockSize);
+                block.compareAndSet(current, new SharedBlock(first, first + blockSize));
+            }
+        }
+    }
+
+    private static final class SharedBlock {
+        final AtomicLong next;
+        final long end;
+
+        SharedBlock(long next, long end) {
+            this.next = new AtomicLong(next);
+            this.end = end;
+        }
+    }
+
+    private static final class ThreadLocalBlocks extends RevisionGenerator {
+
+        private final int blockSize;
+
+        private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+        ThreadLocalBlocks(long node, int blockSize) {
+            super(node);
+            Check.that(blockSize > 0, "blockSize should be > 0");
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        public Revision next() {
+            Block block = blocks.get();
+            if (block.next == block.end) {
+                block.next = Revision.reserveUniqueTimes(currentTimeMillis(), blockSize);
+                block.end = block.next + blockSize;
+            }
+            return new Revision(block.next++, node);
+        }
+    }
+
+    private static final class Block {
+        long next;
+        long end;
+    }
+}
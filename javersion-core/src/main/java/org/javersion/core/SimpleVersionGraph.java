@@ -28,7 +28,15 @@ public final class SimpleVersionGraph extends AbstractVersionGraph<String, Strin
     }
 
     public static SimpleVersionGraph init(Iterable<? extends Version<String, String, String>> versions) {
-        Builder builder = new Builder();
+        return init(Materialization.EAGER, versions);
+    }
+
+    public static SimpleVersionGraph init(Materialization materialization) {
+        return new SimpleVersionGraph(materialization);
+    }
+
+    public static SimpleVersionGraph init(Materialization materialization, Iterable<? extends Version<String, String, String>> versions) {
+        Builder builder = new Builder(materialization);
         for (Version<String, String, String> version : versions) {
             builder.add(version);
         }
@@ -39,6 +47,10 @@ public final class SimpleVersionGraph extends AbstractVersionGraph<String, Strin
         super();
     }
 
+    private SimpleVersionGraph(Materialization materialization) {
+        super(materialization);
+    }
+
     private SimpleVersionGraph(Builder builder) {
         super(builder);
     }
@@ -50,7 +62,7 @@ public final class SimpleVersionGraph extends AbstractVersionGraph<String, Strin
 
     @Override
     protected Builder newEmptyBuilder() {
-        return new Builder();
+        return new Builder(getMaterialization());
     }
 
     static class Builder extends VersionGraphBuilder<String, String, String, SimpleVersionGraph, Builder> {
@@ -59,6 +71,10 @@ public final class SimpleVersionGraph extends AbstractVersionGraph<String, Strin
             super();
         }
 
+        protected Builder(Materialization materialization) {
+            super(materialization);
+        }
+
         protected Builder(SimpleVersionGraph parentGraph) {
             super(parentGraph);
         }
@@ -17,6 +17,7 @@ package org.javersion.core;
 
 import org.javersion.util.PersistentSortedMap;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -38,6 +39,11 @@ public interface VersionGraph<K, V, M> {
 
     Merge<K, V, M> mergeRevisions(Iterable<Revision> revisions);
 
+    /**
+     * @return properties changed between <code>from</code> and <code>to</code> revisions. Removed properties are mapped to null.
+     */
+    Map<K, V> changesBetween(Revision from, Revision to);
+
     Iterable<VersionNode<K, V, M>> getHeads(String branch);
 
     VersionNode<K, V, M> getHead(String branch);
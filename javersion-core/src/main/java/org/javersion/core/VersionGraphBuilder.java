@@ -26,6 +26,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 import org.javersion.util.*;
 
+import com.google.common.collect.ImmutableList;
+
 @NotThreadSafe
 public abstract class VersionGraphBuilder<K, V, M,
                                G extends AbstractVersionGraph<K, V, M, G, B>,
@@ -39,15 +41,23 @@ public abstract class VersionGraphBuilder<K, V, M,
 
     VersionNode<K, V, M> at;
 
+    final Materialization materialization;
+
     protected VersionGraphBuilder() {
+        this(Materialization.EAGER);
+    }
+
+    protected VersionGraphBuilder(Materialization materialization) {
         this.versionNodes = new MutableTreeMap<>();
         this.heads = PersistentTreeMap.empty();
+        this.materialization = Check.notNull(materialization, "materialization");
     }
 
     protected VersionGraphBuilder(G parentGraph) {
         this.versionNodes = parentGraph.versionNodes.toMutableMap();
         this.heads = parentGraph.getHeads();
         this.tip = parentGraph.getTip();
+        this.materialization = parentGraph.materialization;
     }
 
     @SuppressWarnings("unchecked")
@@ -62,22 +72,39 @@ public abstract class VersionGraphBuilder<K, V, M,
             throw new IllegalArgumentException("Duplicate revision: " + version);
         }
         MutableSortedMap<BranchAndRevision, VersionNode<K, V, M>> mutableHeads = heads.toMutableMap();
-        MergeBuilder<K, V, M> mergeBuilder = new MergeBuilder<>();
+        Ancestry.Index ancestryIndex = tip != null ? tip.ancestry.index : Ancestry.Index.EMPTY;
 
+        List<VersionNode<K, V, M>> mergedParents;
         if (version.type == RESET) {
             resetVersion(version, mutableHeads);
+            mergedParents = ImmutableList.of();
+        } else {
+            mergedParents = toVersionNodes(version.parentRevisions);
+            normalVersion(version, mergedParents, mutableHeads);
+        }
+        if (materialization.isLazy()) {
+            Ancestry ancestry = lazyAncestry(ancestryIndex, version, mergedParents);
+            tip = new VersionNode<>(version, tip, ancestry, null, null, mutableHeads, mergedParents, materialization);
         } else {
-            normalVersion(version, mutableHeads, mergeBuilder);
+            MergeBuilder<K, V, M> mergeBuilder = new MergeBuilder<>(ancestryIndex);
+            mergeBuilder.mergeAll(mergedParents);
+            mergeBuilder.overwrite(version);
+            tip = new VersionNode<>(version, tip, mergeBuilder.getAncestry(), mergeBuilder.getMergeState(), mergeBuilder.getChangeset(),
+                    mutableHeads, mergedParents, materialization);
         }
-        mergeBuilder.overwrite(version);
-        tip = new VersionNode<>(version, (tip != null ? tip : null), mergeBuilder, mutableHeads);
         heads = tip.heads;
         versionNodes.put(tip.revision, tip);
     }
 
-    private void normalVersion(Version<K, V, M> version, MutableSortedMap<BranchAndRevision, VersionNode<K, V, M>> mutableHeads, MergeBuilder<K, V, M> mergeBuilder) {
-        Iterable<VersionNode<K, V, M>> parents = toVersionNodes(version.parentRevisions);
-        mergeBuilder.mergeAll(parents);
+    private static <K, V, M> Ancestry lazyAncestry(Ancestry.Index ancestryIndex, Version<K, V, M> version, List<VersionNode<K, V, M>> parents) {
+        Ancestry ancestry = Ancestry.EMPTY.withIndex(ancestryIndex);
+        for (VersionNode<K, V, M> parent : parents) {
+            ancestry = ancestry.merge(parent.ancestry);
+        }
+        return ancestry.add(version.revision, version.parentRevisions);
+    }
+
+    private void normalVersion(Version<K, V, M> version, List<VersionNode<K, V, M>> parents, MutableSortedMap<BranchAndRevision, VersionNode<K, V, M>> mutableHeads) {
         for (VersionNode<K, V, M> parent : parents) {
             if (parent.branch.equals(version.branch)) {
                 mutableHeads.remove(new BranchAndRevision(parent));
@@ -90,7 +117,7 @@ public abstract class VersionGraphBuilder<K, V, M,
             Iterable<VersionNode<K, V, M>> parents = toVersionNodes(version.parentRevisions);
             for (BranchAndRevision branchAndRevision : new ArrayList<>(mutableHeads.keySet())) {
                 for (VersionNode<K, V, M> parent : parents) {
-                    if (parent.mergedRevisions.contains(branchAndRevision.revision)) {
+                    if (parent.contains(branchAndRevision.revision)) {
                         mutableHeads.remove(branchAndRevision);
                         break;
                     }
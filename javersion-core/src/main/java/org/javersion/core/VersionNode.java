@@ -15,19 +15,26 @@
  */
 package org.javersion.core;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 
 import org.javersion.util.Check;
 import org.javersion.util.MutableSortedMap;
+import org.javersion.util.PersistentHashMap;
 import org.javersion.util.PersistentSortedMap;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
-@Immutable
+/**
+ * Immutable except for merged state and changeset that may be computed on demand (see {@link Materialization}).
+ */
+@ThreadSafe
 public final class VersionNode<K, V, M> extends Merge<K, V, M> {
 
     // TODO: As Revision?
@@ -45,12 +52,80 @@ public final class VersionNode<K, V, M> extends Merge<K, V, M> {
 
     public final PersistentSortedMap<BranchAndRevision, VersionNode<K, V, M>> heads;
 
+    /**
+     * Merged state of a checkpoint node or a lazily materialized node, null for delta nodes.
+     */
+    private volatile MergeState<K, V> state;
+
+    /**
+     * Effective changes of this version. Null for lazy nodes until materialized.
+     */
+    private volatile PersistentHashMap<K, V> changeset;
+
+    private final Materialization materialization;
+
+    /**
+     * Distance from the nearest checkpoint along merged parents. 0 for checkpoints.
+     */
+    private final int distance;
+
+    /**
+     * Parents this version was merged from. Empty for checkpoints.
+     */
+    private final List<VersionNode<K, V, M>> mergedParents;
+
+    /**
+     * Changeset to apply on top of mergedParents. Null for checkpoints.
+     */
+    private final Map<K, V> deltaChangeset;
+
     public VersionNode(Version<K, V, M> version,
                        VersionNode<K, V, M> previousVersionNode,
                        MergeBuilder<K, V, M> mergeBuilder,
                        MutableSortedMap<BranchAndRevision, VersionNode<K, V, M>> mutableHeads) {
-        super(mergeBuilder);
+        this(version, previousVersionNode, mergeBuilder.getAncestry(), mergeBuilder.getMergeState(), mergeBuilder.getChangeset(),
+                mutableHeads, ImmutableList.of(), Materialization.EAGER);
+    }
+
+    /**
+     * @param mergeState merged state of this version or null if materialization is lazy
+     * @param changeset effective changes of this version or null if materialization is lazy
+     */
+    VersionNode(Version<K, V, M> version,
+                VersionNode<K, V, M> previousVersionNode,
+                Ancestry ancestry,
+                MergeState<K, V> mergeState,
+                PersistentHashMap<K, V> changeset,
+                MutableSortedMap<BranchAndRevision, VersionNode<K, V, M>> mutableHeads,
+                List<VersionNode<K, V, M>> mergedParents,
+                Materialization materialization) {
+        super(ancestry);
         Check.notNull(version, "version");
+        this.materialization = materialization;
+        this.changeset = changeset;
+        int distance = 0;
+        for (VersionNode<K, V, M> parent : mergedParents) {
+            distance = Math.max(distance, parent.distance + 1);
+        }
+        boolean isDelta = false;
+        if (materialization.isLazy()) {
+            this.state = null;
+            this.distance = distance;
+            this.mergedParents = ImmutableList.copyOf(mergedParents);
+            this.deltaChangeset = version.changeset;
+        } else if (mergedParents.isEmpty() || materialization.isCheckpoint(distance)) {
+            this.state = mergeState;
+            this.distance = 0;
+            this.mergedParents = ImmutableList.of();
+            this.deltaChangeset = null;
+        } else {
+            this.state = null;
+            this.distance = distance;
+            this.mergedParents = ImmutableList.copyOf(mergedParents);
+            // Effective changes are a subset of version's changes: share them if they are the same
+            this.deltaChangeset = changeset.size() == version.changeset.size() ? changeset.asMap() : version.changeset;
+            isDelta = true;
+        }
         this.revision = version.revision;
         this.previousVersionNode = previousVersionNode;
         this.branch = version.branch;
@@ -59,6 +134,10 @@ public final class VersionNode<K, V, M> extends Merge<K, V, M> {
         this.meta = version.meta;
         mutableHeads.put(new BranchAndRevision(this), this);
         this.heads = mutableHeads.toPersistentMap();
+        if (isDelta) {
+            // Subsequent versions are likely to be based on this. Published only once fully initialized.
+            materialization.put(this, mergeState);
+        }
     }
 
     public Revision getRevision() {
@@ -81,15 +160,66 @@ public final class VersionNode<K, V, M> extends Merge<K, V, M> {
     @Override
     protected void setMergeHeads(Set<Revision> heads) {}
 
-    public Map<K, V> getChangeset() {
-        // TODO: cache result
-        final Map<K, V> changeset = new HashMap<>();
-        mergedProperties.stream().forEach(entry -> {
-            if (entry.getValue().revision.equals(revision)) {
-                changeset.put(entry.getKey(), entry.getValue().value);
+    @Override
+    MergeState<K, V> getMergeState() {
+        MergeState<K, V> mergeState = state;
+        if (mergeState != null) {
+            return mergeState;
+        }
+        if (materialization.isLazy()) {
+            return materializeLazily();
+        }
+        return materialization.get(this, this::rebuildMergeState);
+    }
+
+    /**
+     * Materializes unmaterialized ancestors first (in post-order) to avoid deep recursion on long histories.
+     */
+    private MergeState<K, V> materializeLazily() {
+        Deque<VersionNode<K, V, M>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            VersionNode<K, V, M> node = stack.peek();
+            if (node.state != null) {
+                stack.pop();
+                continue;
+            }
+            boolean parentsMaterialized = true;
+            for (VersionNode<K, V, M> parent : node.mergedParents) {
+                if (parent.state == null) {
+                    stack.push(parent);
+                    parentsMaterialized = false;
+                }
             }
-        });
-        return changeset;
+            if (parentsMaterialized) {
+                stack.pop();
+                node.state = node.rebuildMergeState();
+            }
+        }
+        return state;
+    }
+
+    private MergeState<K, V> rebuildMergeState() {
+        MergeBuilder<K, V, M> mergeBuilder = new MergeBuilder<>(ancestry.index);
+        mergeBuilder.mergeAll(mergedParents);
+        mergeBuilder.overwrite(revision, parentRevisions, deltaChangeset);
+        if (changeset == null) {
+            changeset = mergeBuilder.getChangeset();
+        }
+        return mergeBuilder.getMergeState();
+    }
+
+    public boolean isMaterialized() {
+        return state != null;
+    }
+
+    public Map<K, V> getChangeset() {
+        PersistentHashMap<K, V> result = changeset;
+        if (result == null) {
+            getMergeState();
+            result = changeset;
+        }
+        return result.asMap();
     }
 
     public Version<K, V, M> getVersion() {
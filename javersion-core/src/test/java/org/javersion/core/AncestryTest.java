@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.core.VersionType.RESET;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class AncestryTest {
+
+    @Test
+    public void linear_history_uses_single_chain() {
+        Revision rev1 = new Revision(), rev2 = new Revision(), rev3 = new Revision();
+        SimpleVersionGraph graph = SimpleVersionGraph.init(
+                SimpleVersion.builder(rev1).build(),
+                SimpleVersion.builder(rev2).parents(rev1).build(),
+                SimpleVersion.builder(rev3).parents(rev2).build());
+
+        Ancestry ancestry = graph.getVersionNode(rev3).ancestry;
+        assertThat(ancestry.index.chainCount()).isEqualTo(1);
+        assertThat(ancestry.contains(rev1)).isTrue();
+        assertThat(ancestry.contains(rev3)).isTrue();
+        assertThat(graph.getVersionNode(rev1).contains(rev2)).isFalse();
+        assertThat(ancestry.contains(new Revision())).isFalse();
+    }
+
+    @Test
+    public void reset_does_not_contain_parents() {
+        Revision rev1 = new Revision(), rev2 = new Revision(), rev3 = new Revision();
+        SimpleVersionGraph graph = SimpleVersionGraph.init(
+                SimpleVersion.builder(rev1).build(),
+                SimpleVersion.builder(rev2).parents(rev1).type(RESET).build(),
+                SimpleVersion.builder(rev3).parents(rev2).build());
+
+        assertThat(graph.getVersionNode(rev2).contains(rev1)).isFalse();
+        assertThat(graph.getVersionNode(rev3).contains(rev1)).isFalse();
+        assertThat(graph.getVersionNode(rev3).contains(rev2)).isTrue();
+    }
+
+    @Test
+    public void random_graphs_match_brute_force_ancestry() {
+        Random random = new Random(1234);
+        for (int round = 0; round < 20; round++) {
+            List<Revision> revisions = new ArrayList<>();
+            Map<Revision, Set<Revision>> expected = new HashMap<>();
+            SimpleVersionGraph graph = SimpleVersionGraph.init();
+
+            for (int i = 0; i < 60; i++) {
+                Revision revision = new Revision();
+                Set<Revision> parents = new LinkedHashSet<>();
+                if (!revisions.isEmpty()) {
+                    int parentCount = 1 + random.nextInt(Math.min(3, revisions.size()));
+                    for (int j = 0; j < parentCount; j++) {
+                        parents.add(revisions.get(revisions.size() - 1 - random.nextInt(Math.min(8, revisions.size()))));
+                    }
+                }
+                boolean reset = !parents.isEmpty() && random.nextInt(15) == 0;
+                Set<Revision> contained = new HashSet<>();
+                contained.add(revision);
+                if (!reset) {
+                    parents.forEach(parent -> contained.addAll(expected.get(parent)));
+                }
+                expected.put(revision, contained);
+                revisions.add(revision);
+
+                graph = graph.commit(SimpleVersion.builder(revision)
+                        .parents(parents)
+                        .type(reset ? RESET : VersionType.NORMAL)
+                        .build());
+            }
+
+            for (Revision revision : revisions) {
+                VersionNode<String, String, String> node = graph.getVersionNode(revision);
+                for (Revision other : revisions) {
+                    assertThat(node.contains(other)).isEqualTo(expected.get(revision).contains(other));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class AtomicVersionGraphTest {
+
+    @Test
+    public void concurrent_commits_and_submits() throws Exception {
+        final AtomicVersionGraph<String, String, String, SimpleVersionGraph> holder = new AtomicVersionGraph<>(SimpleVersionGraph.init());
+        final int threads = 8, count = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final String branch = "branch" + i;
+                final boolean submit = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    Revision parent = null;
+                    for (int j = 0; j < count; j++) {
+                        SimpleVersion.Builder builder = SimpleVersion.builder()
+                                .branch(branch)
+                                .changeset(ImmutableMap.of(branch, Integer.toString(j)));
+                        if (parent != null) {
+                            builder.parents(parent);
+                        }
+                        SimpleVersion version = builder.build();
+                        SimpleVersionGraph graph = submit ? holder.submit(version) : holder.commit(version);
+                        assertThat(graph.contains(version.revision)).isTrue();
+                        parent = version.revision;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        SimpleVersionGraph graph = holder.get();
+        assertThat(graph.size()).isEqualTo(threads * count);
+        for (int i = 0; i < threads; i++) {
+            String branch = "branch" + i;
+            assertThat(graph.getHead(branch).getProperties()).isEqualTo(ImmutableMap.of(branch, Integer.toString(count - 1)));
+        }
+    }
+
+    @Test(expected = VersionNotFoundException.class)
+    public void submit_throws_failure_of_own_version() {
+        AtomicVersionGraph<String, String, String, SimpleVersionGraph> holder = new AtomicVersionGraph<>(SimpleVersionGraph.init());
+        holder.submit(SimpleVersion.builder().parents(new Revision()).build());
+    }
+
+    @Test
+    public void failed_version_does_not_prevent_others_in_batch() {
+        AtomicVersionGraph<String, String, String, SimpleVersionGraph> holder = new AtomicVersionGraph<>(SimpleVersionGraph.init());
+        SimpleVersion valid = SimpleVersion.builder().build();
+        try {
+            holder.submit(SimpleVersion.builder().parents(new Revision()).build());
+        } catch (VersionNotFoundException e) {
+            // expected
+        }
+        assertThat(holder.submit(valid).contains(valid.revision)).isTrue();
+    }
+
+    @Test
+    public void duplicate_submit_fails_only_own_submission() {
+        AtomicVersionGraph<String, String, String, SimpleVersionGraph> holder = new AtomicVersionGraph<>(SimpleVersionGraph.init());
+        SimpleVersion version = SimpleVersion.builder().build();
+        holder.submit(version);
+        try {
+            holder.submit(version);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        SimpleVersion next = SimpleVersion.builder().parents(version.revision).build();
+        assertThat(holder.submit(next).contains(next.revision)).isTrue();
+    }
+}
@@ -6,9 +6,11 @@ import static org.javersion.core.Diff.diff;
 import static org.junit.Assert.assertThat;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
+import org.javersion.util.PersistentHashMap;
 import org.junit.Test;
 
 import com.google.common.collect.Maps;
@@ -105,6 +107,40 @@ public class DiffTest {
         assertThat(diff, equalTo(sorted(2,null, 3,null)));
     }
 
+    @Test
+    public void Incremental_Matches_Diff() {
+        assertIncremental(map(1, 1, 2, 2), map(1, 1, 2, 2));
+        assertIncremental(map(), map(1, null, 2, null));
+        assertIncremental(map(1, 1, 2, 2), map(1, null));
+        assertIncremental(map(1, 1, 2, 2), map(3, null));
+        assertIncremental(map(1, null, 2, 2), map(1, null));
+        assertIncremental(map(1, 1, 2, 2, 3, 3), map(2, 3, 4, 4));
+    }
+
+    @Test
+    public void Incremental_Does_Not_Modify_From() {
+        PersistentHashMap<Object, Object> from = PersistentHashMap.of(1, 1, 2, 2);
+        Diff.Incremental<Object, Object> incremental = Diff.incremental(from);
+        incremental.accept(1, 2);
+        assertThat(incremental.getDiff(), equalTo(map(1, 2, 2, null)));
+        assertThat(from.asMap(), equalTo(map(1, 1, 2, 2)));
+    }
+
+    @Test
+    public void Incremental_Values_Of_Tombstones_Are_Missing() {
+        PersistentHashMap<Object, Optional<Object>> from = PersistentHashMap.of(1, Optional.of(1), 2, Optional.empty(), 3, Optional.of(3));
+        Diff.Incremental<Object, Object> incremental = Diff.incremental(from, value -> value.orElse(null));
+        incremental.accept(2, null);
+        incremental.accept(3, 4);
+        assertThat(incremental.getDiff(), equalTo(map(1, null, 3, 4)));
+    }
+
+    private static void assertIncremental(Map<Object, Object> from, Map<Object, Object> to) {
+        Diff.Incremental<Object, Object> incremental = Diff.incremental(PersistentHashMap.copyOf(from));
+        to.forEach(incremental);
+        assertThat(incremental.getDiff(), equalTo(diff(from, to)));
+    }
+
     public static <K> Map<K, K> map(K... keysAndValues) {
         if (keysAndValues.length % 2 != 0) {
             throw new IllegalArgumentException("Expected even keysAndValues.size()");
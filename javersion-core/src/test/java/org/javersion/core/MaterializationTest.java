@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.core.VersionType.RESET;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+
+public class MaterializationTest {
+
+    @Test
+    public void checkpoints_every_nth_node() {
+        SimpleVersionGraph graph = SimpleVersionGraph.init(Materialization.checkpoints(3, 0));
+        List<Revision> revisions = new ArrayList<>();
+        Revision parent = null;
+        for (int i = 0; i < 7; i++) {
+            Revision revision = new Revision();
+            SimpleVersion.Builder builder = SimpleVersion.builder(revision).changeset(map("key", "value" + i));
+            if (parent != null) {
+                builder.parents(parent);
+            }
+            graph = graph.commit(builder.build());
+            revisions.add(revision);
+            parent = revision;
+        }
+        List<Boolean> materialized = new ArrayList<>();
+        for (Revision revision : revisions) {
+            materialized.add(graph.getVersionNode(revision).isMaterialized());
+        }
+        assertThat(materialized).containsExactly(true, false, false, true, false, false, true);
+        assertThat(graph.getVersionNode(revisions.get(5)).getProperties()).isEqualTo(map("key", "value5"));
+        assertThat(graph.getVersionNode(revisions.get(5)).getChangeset()).isEqualTo(map("key", "value5"));
+    }
+
+    @Test
+    public void lazy_nodes_are_materialized_on_first_access() {
+        List<Version<String, String, String>> versions = new ArrayList<>();
+        Revision parent = null;
+        for (int i = 0; i < 20000; i++) {
+            SimpleVersion.Builder builder = SimpleVersion.builder().changeset(map("key" + (i % 100), "value" + i));
+            if (parent != null) {
+                builder.parents(parent);
+            }
+            SimpleVersion version = builder.build();
+            versions.add(version);
+            parent = version.revision;
+        }
+        SimpleVersionGraph graph = SimpleVersionGraph.init(Materialization.LAZY, versions);
+        VersionNode<String, String, String> first = graph.getVersionNode(versions.get(0).revision);
+        assertThat(first.isMaterialized()).isFalse();
+        assertThat(graph.getTip().isMaterialized()).isFalse();
+
+        assertThat(graph.mergeBranches(Version.DEFAULT_BRANCH).getProperties()).hasSize(100).containsEntry("key99", "value19999");
+        assertThat(graph.getTip().isMaterialized()).isTrue();
+        assertThat(first.isMaterialized()).isTrue();
+    }
+
+    @Test
+    public void random_graphs_match_eager_graph() {
+        Random random = new Random(4321);
+        for (int round = 0; round < 10; round++) {
+            List<Version<String, String, String>> versions = randomVersions(random, 80);
+            SimpleVersionGraph eager = SimpleVersionGraph.init(versions);
+            for (Materialization materialization : Arrays.asList(Materialization.checkpoints(4, 0), Materialization.checkpoints(10, 16), Materialization.LAZY)) {
+                SimpleVersionGraph checkpointed = SimpleVersionGraph.init(materialization, versions);
+                for (Version<String, String, String> version : versions) {
+                    VersionNode<String, String, String> expected = eager.getVersionNode(version.revision);
+                    VersionNode<String, String, String> actual = checkpointed.getVersionNode(version.revision);
+                    assertThat(actual.getProperties()).isEqualTo(expected.getProperties());
+                    assertThat(conflicts(actual)).isEqualTo(conflicts(expected));
+                    assertThat(actual.getChangeset()).isEqualTo(expected.getChangeset());
+                }
+                assertThat(checkpointed.mergeBranches(Version.DEFAULT_BRANCH).getProperties())
+                        .isEqualTo(eager.mergeBranches(Version.DEFAULT_BRANCH).getProperties());
+            }
+        }
+    }
+
+    private static List<Version<String, String, String>> randomVersions(Random random, int count) {
+        List<Version<String, String, String>> versions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Set<Revision> parents = new LinkedHashSet<>();
+            if (!versions.isEmpty()) {
+                int parentCount = 1 + random.nextInt(Math.min(2, versions.size()));
+                for (int j = 0; j < parentCount; j++) {
+                    parents.add(versions.get(versions.size() - 1 - random.nextInt(Math.min(6, versions.size()))).revision);
+                }
+            }
+            Map<String, String> changeset = new HashMap<>();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                String key = "key" + random.nextInt(10);
+                changeset.put(key, random.nextInt(5) == 0 ? null : "value" + random.nextInt(3));
+            }
+            versions.add(SimpleVersion.builder()
+                    .parents(parents)
+                    .changeset(changeset)
+                    .type(!parents.isEmpty() && random.nextInt(20) == 0 ? RESET : VersionType.NORMAL)
+                    .build());
+        }
+        return versions;
+    }
+
+    private static Multimap<String, String> conflicts(Merge<String, String, String> merge) {
+        return Multimaps.transformValues(merge.getConflicts(), property -> property.value + "@" + property.revision);
+    }
+
+    private static Map<String, String> map(String key, String value) {
+        Map<String, String> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+}
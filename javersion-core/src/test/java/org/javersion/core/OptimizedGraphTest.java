@@ -7,6 +7,7 @@ import static org.javersion.core.Revision.NODE;
 import static org.javersion.core.SimpleVersionGraphTest.mapOf;
 import static org.javersion.core.SimpleVersionGraphTest.setOf;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -332,6 +333,117 @@ public class OptimizedGraphTest {
         assertThat(optimizedGraph.getSquashedRevisions()).isEmpty();
     }
 
+    /**
+     * 1*
+     * 2  removes key2
+     * 3*
+     */
+    @Test
+    public void removed_property_stays_removed() {
+        SimpleVersionGraph graph = SimpleVersionGraph.init(
+                new SimpleVersion.Builder(rev(1)).changeset(mapOf("key1", "value1", "key2", "value1")).build(),
+                new SimpleVersion.Builder(rev(2)).parents(rev(1)).changeset(mapOf("key2", null)).build(),
+                new SimpleVersion.Builder(rev(3)).parents(rev(2)).changeset(mapOf("key3", "value1")).build());
+
+        OptimizedGraph<String, String, String, SimpleVersionGraph> optimizedGraph = graph.optimize(rev(1), rev(3));
+        assertThat(optimizedGraph.getSquashedRevisions()).isEqualTo(asList(rev(2)));
+
+        VersionNode<String, String, String> v3node = optimizedGraph.getGraph().getVersionNode(rev(3));
+        assertThat(v3node.getParentRevisions()).isEqualTo(ImmutableSet.of(rev(1)));
+        assertThat(v3node.getProperties()).isEqualTo(graph.getVersionNode(rev(3)).getProperties());
+    }
+
+    /**
+     * 1
+     * 2
+     * 3+
+     * ---
+     * 4
+     * 5
+     * 6*
+     */
+    @Test
+    public void incremental_linear_history() {
+        SimpleVersionGraph graph = SimpleVersionGraph.init(
+                new SimpleVersion.Builder(rev(1)).changeset(mapOf("key1", "value1")).build(),
+                new SimpleVersion.Builder(rev(2)).parents(rev(1)).changeset(mapOf("key1", "value2")).build(),
+                new SimpleVersion.Builder(rev(3)).parents(rev(2)).changeset(mapOf("key2", "value1")).build());
+        OptimizedGraph<String, String, String, SimpleVersionGraph> previous = graph.optimize(rev(3));
+
+        graph = previous.getGraph().commit(asList(
+                new SimpleVersion.Builder(rev(4)).parents(rev(3)).changeset(mapOf("key1", "value3")).build(),
+                new SimpleVersion.Builder(rev(5)).parents(rev(4)).changeset(mapOf("key2", null)).build(),
+                new SimpleVersion.Builder(rev(6)).parents(rev(5)).changeset(mapOf("key3", "value1")).build()));
+
+        OptimizedGraph<String, String, String, SimpleVersionGraph> optimizedGraph = graph.optimize(previous, node -> node.revision.equals(rev(6)));
+        assertThat(optimizedGraph.getKeptRevisions()).isEqualTo(asList(rev(3), rev(6)));
+        assertThat(optimizedGraph.getSquashedRevisions()).isEqualTo(asList(rev(5), rev(4)));
+
+        SimpleVersionGraph optimized = optimizedGraph.getGraph();
+        assertThat(optimized.getVersionNode(rev(3))).isSameAs(previous.getGraph().getVersionNode(rev(3)));
+        assertNotFound(optimized, rev(4));
+        assertNotFound(optimized, rev(5));
+        VersionNode<String, String, String> v6node = optimized.getVersionNode(rev(6));
+        assertThat(v6node.getParentRevisions()).isEqualTo(ImmutableSet.of(rev(3)));
+        assertThat(v6node.getProperties()).isEqualTo(graph.getVersionNode(rev(6)).getProperties());
+    }
+
+    /**
+     *   1+
+     *   2+
+     *   ---
+     *  3  \
+     *  |   4
+     *  5*
+     */
+    @Test
+    public void incremental_optimization_links_to_nearest_previous_versions() {
+        SimpleVersionGraph graph = SimpleVersionGraph.init(
+                new SimpleVersion.Builder(rev(1)).changeset(mapOf("key1", "value1")).build(),
+                new SimpleVersion.Builder(rev(2)).parents(rev(1)).changeset(mapOf("key2", "value1")).build());
+        OptimizedGraph<String, String, String, SimpleVersionGraph> previous = graph.optimize(node -> true);
+
+        graph = previous.getGraph().commit(asList(
+                new SimpleVersion.Builder(rev(3)).parents(rev(1)).changeset(mapOf("key3", "value1")).build(),
+                new SimpleVersion.Builder(rev(4)).parents(rev(2)).changeset(mapOf("key4", "value1")).build(),
+                new SimpleVersion.Builder(rev(5)).parents(rev(3), rev(4)).changeset(mapOf("key5", "value1")).build()));
+
+        OptimizedGraph<String, String, String, SimpleVersionGraph> optimizedGraph = graph.optimize(previous, node -> false);
+        assertThat(optimizedGraph.getKeptRevisions()).isEqualTo(asList(rev(1), rev(2), rev(5)));
+        assertThat(optimizedGraph.getSquashedRevisions()).isEqualTo(asList(rev(4), rev(3)));
+
+        VersionNode<String, String, String> v5node = optimizedGraph.getGraph().getVersionNode(rev(5));
+        assertThat(v5node.getParentRevisions()).isEqualTo(ImmutableSet.of(rev(2)));
+        assertThat(v5node.getProperties()).isEqualTo(graph.getVersionNode(rev(5)).getProperties());
+    }
+
+    @Test
+    public void repeated_incremental_optimization_keeps_all_kept_revisions() {
+        SimpleVersionGraph graph = SimpleVersionGraph.init(new SimpleVersion.Builder(rev(1)).changeset(mapOf("key", "1")).build());
+        OptimizedGraph<String, String, String, SimpleVersionGraph> optimizedGraph = graph.optimize(node -> true);
+        List<Revision> expected = new ArrayList<>(asList(rev(1)));
+        for (int i = 2; i < 20; i += 2) {
+            graph = optimizedGraph.getGraph().commit(asList(
+                    new SimpleVersion.Builder(rev(i)).parents(rev(i - 1)).changeset(mapOf("key", "" + i)).build(),
+                    new SimpleVersion.Builder(rev(i + 1)).parents(rev(i)).changeset(mapOf("key", "" + (i + 1))).build()));
+            optimizedGraph = graph.optimize(optimizedGraph, node -> false);
+            expected.add(rev(i + 1));
+
+            assertThat(optimizedGraph.getKeptRevisions()).isEqualTo(expected);
+            assertThat(optimizedGraph.getSquashedRevisions()).isEqualTo(asList(rev(i)));
+        }
+        assertThat(optimizedGraph.getGraph().getTip().getProperties()).isEqualTo(mapOf("key", "19"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void incremental_optimization_requires_derived_graph() {
+        SimpleVersionGraph graph = SimpleVersionGraph.init(new SimpleVersion.Builder(rev(1)).build());
+        OptimizedGraph<String, String, String, SimpleVersionGraph> previous = SimpleVersionGraph
+                .init(new SimpleVersion.Builder(rev(1)).build())
+                .optimize(node -> true);
+        graph.optimize(previous, node -> true);
+    }
+
     @Test
     public void performance() {
         int COUNT = 10000;
@@ -0,0 +1,119 @@
+package org.javersion.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class RevisionGeneratorTest {
+
+    @Test
+    public void batch_is_increasing() {
+        Revision[] revisions = RevisionGenerator.shared(123l).next(1000);
+        assertThat(revisions).hasSize(1000);
+        for (int i = 0; i < revisions.length - 1; i++) {
+            assertThat(revisions[i]).isLessThan(revisions[i + 1]);
+            assertThat(revisions[i].node).isEqualTo(123l);
+        }
+        assertThat(new Revision(123l)).isGreaterThan(revisions[revisions.length - 1]);
+    }
+
+    @Test
+    public void empty_batch() {
+        assertThat(RevisionGenerator.shared().next(0)).isEmpty();
+    }
+
+    @Test
+    public void thread_local_blocks_are_unique_and_increasing_per_thread() throws Exception {
+        final RevisionGenerator generator = RevisionGenerator.threadLocalBlocks(16);
+        final int threads = 8, count = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Revision[]>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    Revision[] revisions = new Revision[count];
+                    for (int j = 0; j < count; j++) {
+                        revisions[j] = generator.next();
+                    }
+                    return revisions;
+                }));
+            }
+            Set<Revision> all = new HashSet<>();
+            for (Future<Revision[]> future : futures) {
+                Revision[] revisions = future.get();
+                for (int j = 0; j < count - 1; j++) {
+                    assertThat(revisions[j]).isLessThan(revisions[j + 1]);
+                }
+                for (Revision revision : revisions) {
+                    all.add(revision);
+                }
+            }
+            assertThat(all).hasSize(threads * count);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void blocks_are_increasing_across_threads() throws Exception {
+        final RevisionGenerator generator = RevisionGenerator.blocks(16);
+        final int threads = 8, count = 20000;
+        final AtomicReference<Revision> latest = new AtomicReference<>(Revision.MIN_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Revision[]>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    Revision[] revisions = new Revision[count];
+                    for (int j = 0; j < count; j++) {
+                        // Like a child version built on the latest version of another thread
+                        synchronized (latest) {
+                            Revision parent = latest.get();
+                            revisions[j] = generator.next();
+                            assertThat(revisions[j]).isGreaterThan(parent);
+                            latest.set(revisions[j]);
+                        }
+                    }
+                    return revisions;
+                }));
+            }
+            Set<Revision> all = new HashSet<>();
+            for (Future<Revision[]> future : futures) {
+                for (Revision revision : future.get()) {
+                    all.add(revision);
+                }
+            }
+            assertThat(all).hasSize(threads * count);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void blocks_are_refilled_only_when_used_up() {
+        RevisionGenerator generator = RevisionGenerator.threadLocalBlocks(1000);
+        Revision first = generator.next();
+        for (int i = 1; i < 1000; i++) {
+            assertThat(generator.next().timeSeq).isEqualTo(first.timeSeq + i);
+        }
+    }
+
+    @Test
+    public void thread_local_blocks_do_not_overlap_with_new_revision() {
+        RevisionGenerator generator = RevisionGenerator.threadLocalBlocks(1000);
+        Revision first = generator.next();
+        Revision other = new Revision();
+        Revision second = generator.next();
+        assertThat(other).isNotEqualTo(first).isNotEqualTo(second);
+        assertThat(second).isGreaterThan(first);
+    }
+}
@@ -417,6 +417,17 @@ public class SimpleVersionGraphTest {
         runExpectations(versionGraph, EXPECTATIONS);
     }
 
+    @Test
+    public void Changes_Between_Revisions() {
+        SimpleVersionGraph versionGraph = init(getVersions(EXPECTATIONS));
+        for (VersionNode<String, String, String> from : versionGraph.getVersionNodes()) {
+            for (VersionNode<String, String, String> to : versionGraph.getVersionNodes()) {
+                assertThat(versionGraph.changesBetween(from.revision, to.revision))
+                        .isEqualTo(Diff.diff(from.getProperties(), to.getProperties()));
+            }
+        }
+    }
+
     @Test
     public void Tip_of_an_Empty_Graph() {
         SimpleVersionGraph versionGraph = init();
@@ -429,6 +440,20 @@ public class SimpleVersionGraphTest {
         init().getVersionNode(new Revision());
     }
 
+    @Test
+    public void VersionNode_getChangeset_contains_only_effective_changes() {
+        SimpleVersion v1 = new Builder()
+                .changeset(mapOf("key", "value", "removed", "value"))
+                .build();
+        SimpleVersion v2 = new Builder()
+                .parents(v1.revision)
+                .changeset(mapOf("key", "value", "removed", null, "added", "value"))
+                .build();
+
+        SimpleVersionGraph versionGraph = init(asList(v1, v2));
+        assertThat(versionGraph.getVersionNode(v2.revision).getChangeset()).isEqualTo(mapOf("removed", null, "added", "value"));
+    }
+
     @Test
     public void VersionNode_getChangeset_should_not_throw_NPE() {
         SimpleVersion v1 = new Builder()
@@ -511,6 +536,31 @@ public class SimpleVersionGraphTest {
         assertThat(versionGraph.getHead("branch2")).isEqualTo(versionGraph.getVersionNode(v2.revision));
     }
 
+    @Test
+    public void repeated_merges_are_cached() {
+        SimpleVersion v1 = new Builder()
+                .branch("branch1")
+                .changeset(mapOf("key", "value1"))
+                .build();
+        SimpleVersion v2 = new Builder()
+                .branch("branch2")
+                .changeset(mapOf("key", "value2"))
+                .build();
+        SimpleVersionGraph graph = init(v1, v2);
+
+        Merge<String, String, String> merge = graph.mergeBranches("branch1", "branch2");
+        assertThat(graph.mergeBranches("branch1", "branch2")).isSameAs(merge);
+        assertThat(graph.mergeBranches("branch2", "branch1")).isNotSameAs(merge);
+        assertThat(graph.mergeBranches("branch2", "branch1").getProperties()).isEqualTo(mapOf("key", "value2"));
+
+        Merge<String, String, String> revisionMerge = graph.mergeRevisions(v1.revision, v2.revision);
+        assertThat(graph.mergeRevisions(v1.revision, v2.revision)).isSameAs(revisionMerge);
+        assertThat(revisionMerge).isNotSameAs(merge);
+
+        SimpleVersionGraph next = graph.commit(new Builder().branch("branch1").parents(v1.revision).build());
+        assertThat(next.mergeBranches("branch1", "branch2")).isNotSameAs(merge);
+    }
+
     @Test
     public void tip_of_tip_is_same_instance() {
         SimpleVersionGraph graph = init();
@@ -531,7 +581,7 @@ public class SimpleVersionGraphTest {
         SimpleVersionGraph versionGraph = init(asList(v1, v2));
         Merge<String, String, String> merge = versionGraph.mergeRevisions(v1.revision, v2.revision);
         assertThat(merge.getProperties()).isEqualTo(ImmutableMap.of("key","value2", "foo","bar", "bar","foo"));
-        assertThat(merge.conflicts.entries()).hasSize(1);
+        assertThat(merge.getConflicts().entries()).hasSize(1);
 
         assertThat(merge.getProperties())
                 .withFailMessage("Order doesn't matter")
@@ -646,7 +696,7 @@ public class SimpleVersionGraphTest {
                     .withFailMessage(title("properties", revision, expectation))
                     .isEqualTo(expectation.expectedProperties);
 
-            assertThat(Multimaps.transformValues(merge.conflicts, merge.getVersionPropertyValue))
+            assertThat(Multimaps.transformValues(merge.getConflicts(), merge.getVersionPropertyValue))
                     .withFailMessage(title("conflicts", revision, expectation))
                     .isEqualTo(expectation.expectedConflicts);
         } catch (RuntimeException e) {
@@ -184,7 +184,7 @@ public abstract class AbstractVersionStoreJdbc<Id, M, V extends JVersion<Id>,
             ObjectVersionGraph<M> graph;
             try {
                 FetchResults<Id, M> fetchResults = doFetch(docId, true);
-                graph = ObjectVersionGraph.init(fetchResults.getVersions(docId));
+                graph = ObjectVersionGraph.init(options.materialization, fetchResults.getVersions(docId));
                 doOptimize(docId, graph, keep, false);
             } catch (VersionNotFoundException e) {
                 graph = doLoad(docId);
@@ -220,7 +220,9 @@ public abstract class AbstractVersionStoreJdbc<Id, M, V extends JVersion<Id>,
 
     protected ObjectVersionGraph<M> doLoad(Id docId) {
         FetchResults<Id, M> results = doFetch(docId, false);
-        return results.containsKey(docId) ? results.getVersionGraph(docId) : ObjectVersionGraph.init();
+        return results.containsKey(docId)
+                ? ObjectVersionGraph.init(options.materialization, results.getVersions(docId))
+                : ObjectVersionGraph.init(options.materialization);
     }
 
     protected ObjectVersionGraph<M> doLoadOptimized(Id docId) {
@@ -253,7 +255,7 @@ public abstract class AbstractVersionStoreJdbc<Id, M, V extends JVersion<Id>,
         if (fetchResults.containsKey(docId)) {
             ObjectVersionGraph<M> graph;
             try {
-                graph = ObjectVersionGraph.init(fetchResults.getVersions(docId));
+                graph = ObjectVersionGraph.init(options.materialization, fetchResults.getVersions(docId));
                 if (options.optimizeWhen.test(graph)) {
                     optimizeAsync(docId, graph, false);
                 }
@@ -263,7 +265,7 @@ public abstract class AbstractVersionStoreJdbc<Id, M, V extends JVersion<Id>,
             }
             return graph;
         } else {
-            return ObjectVersionGraph.init();
+            return ObjectVersionGraph.init(options.materialization);
         }
     }
 
@@ -504,6 +506,9 @@ public abstract class AbstractVersionStoreJdbc<Id, M, V extends JVersion<Id>,
         Map<PropertyPath, Object> changeset = Maps.newHashMapWithExpectedSize(properties.size());
         for (Tuple tuple : properties) {
             PropertyPath path = PropertyPath.parse(tuple.get(options.property.path));
+            if (options.internPaths) {
+                path = path.intern();
+            }
             Object value = getPropertyValue(path, tuple);
             changeset.put(path, value);
         }
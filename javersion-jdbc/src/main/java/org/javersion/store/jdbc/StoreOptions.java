@@ -18,6 +18,7 @@ package org.javersion.store.jdbc;
 import com.google.common.collect.ImmutableMap;
 import com.querydsl.core.types.Path;
 import com.querydsl.sql.SQLQueryFactory;
+import org.javersion.core.Materialization;
 import org.javersion.core.VersionNode;
 import org.javersion.object.ObjectVersionGraph;
 import org.javersion.path.PropertyPath;
@@ -58,6 +59,13 @@ public abstract class StoreOptions<Id, M, V extends JVersion<Id>> extends GraphO
 
     public final SQLQueryFactory queryFactory;
 
+    public final Materialization materialization;
+
+    /**
+     * Share identical PropertyPaths of loaded versions through PropertyPath.intern().
+     */
+    public final boolean internPaths;
+
     protected StoreOptions(AbstractBuilder<Id, M, V, ?, ?> builder) {
         super(builder.optimizeWhen, builder.optimizeKeep);
         this.version = Check.notNull(builder.version, "versionTable");
@@ -72,6 +80,8 @@ public abstract class StoreOptions<Id, M, V extends JVersion<Id>> extends GraphO
         this.publisher = builder.publisher;
         this.cacheBuilder = firstNonNull(builder.cacheBuilder, store -> null);
         this.queryFactory = Check.notNull(builder.queryFactory, "queryFactory");
+        this.materialization = firstNonNull(builder.materialization, Materialization.EAGER);
+        this.internPaths = builder.internPaths;
     }
 
     public abstract AbstractBuilder<Id, M, V, ?, ?> toBuilder();
@@ -107,6 +117,10 @@ public abstract class StoreOptions<Id, M, V extends JVersion<Id>> extends GraphO
 
         protected SQLQueryFactory queryFactory;
 
+        protected Materialization materialization;
+
+        protected boolean internPaths;
+
         public AbstractBuilder() {}
 
         public AbstractBuilder(StoreOptions<Id, M, V> options) {
@@ -121,6 +135,8 @@ public abstract class StoreOptions<Id, M, V extends JVersion<Id>> extends GraphO
             this.publisher = options.publisher;
             this.versionTableProperties = options.versionTableProperties;
             this.queryFactory = options.queryFactory;
+            this.materialization = options.materialization;
+            this.internPaths = options.internPaths;
         }
 
         public This versionTableSince(V sinceVersion) {
@@ -217,6 +233,16 @@ public abstract class StoreOptions<Id, M, V extends JVersion<Id>> extends GraphO
             return self();
         }
 
+        public This materialization(Materialization materialization) {
+            this.materialization = materialization;
+            return self();
+        }
+
+        public This internPaths(boolean internPaths) {
+            this.internPaths = internPaths;
+            return self();
+        }
+
         public abstract Options build();
 
         public Options build(SQLQueryFactory queryFactory) {
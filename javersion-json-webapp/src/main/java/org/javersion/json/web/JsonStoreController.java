@@ -203,7 +203,7 @@ public class JsonStoreController {
 
     private ResponseEntity<String> getResponse(String objectId, Merge<PropertyPath, Object, Void> merge, boolean create) {
         Map<PropertyPath, Object> properties = new HashMap<>(merge.getProperties());
-        VersionMetadata ref = new VersionMetadata(objectId, merge.getMergeHeads(), merge.conflicts);
+        VersionMetadata ref = new VersionMetadata(objectId, merge.getMergeHeads(), merge.getConflicts());
         properties.putAll(metaSerializer.toPropertyMap(ref));
         HttpHeaders headers = new HttpHeaders();
         headers.set("Content-Type", "application/json;charset=UTF-8");
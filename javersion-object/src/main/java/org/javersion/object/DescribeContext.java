@@ -110,7 +110,7 @@ public final class DescribeContext {
         return schema.getValue();
     }
 
-    private synchronized ValueType createValueType(PropertyPath path, TypeContext typeContext) {
+    private ValueType createValueType(PropertyPath path, TypeContext typeContext) {
         for (TypeMapping typeMapping : typeMappings.getTypeMappings()) {
             Optional<ValueType> valueType = typeMapping.describe(path, typeContext, this);
             if (valueType.isPresent()) {
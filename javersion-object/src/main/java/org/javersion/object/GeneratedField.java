@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.object;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.javersion.reflect.AccessStrategy.FieldAccessor;
+import org.javersion.util.Check;
+
+import com.google.common.reflect.TypeToken;
+
+/**
+ * Field of a {@link GeneratedVersionable}.
+ */
+@Immutable
+public final class GeneratedField {
+
+    public final Class<?> declaringClass;
+
+    public final String fieldName;
+
+    /**
+     * Property name, i.e. {@link VersionProperty} value or field name
+     */
+    public final String name;
+
+    /**
+     * Is the field annotated with {@link Id}
+     */
+    public final boolean id;
+
+    public final TypeToken<?> type;
+
+    /**
+     * Generated accessor or null if the field is not accessible from the package of the generated class
+     */
+    @Nullable
+    public final FieldAccessor accessor;
+
+    public GeneratedField(Class<?> declaringClass, String fieldName, String name, boolean id, TypeToken<?> type, @Nullable FieldAccessor accessor) {
+        this.declaringClass = Check.notNull(declaringClass, "declaringClass");
+        this.fieldName = Check.notNullOrEmpty(fieldName, "fieldName");
+        this.name = Check.notNullOrEmpty(name, "name");
+        this.id = id;
+        this.type = Check.notNull(type, "type");
+        this.accessor = accessor;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.object;
+
+import java.util.List;
+
+/**
+ * Compile time description of a {@link Versionable} class generated by javersion-processor into a
+ * public class named after the binary name of the class suffixed with {@value #SUFFIX}.
+ * <p>
+ * With the default MappingResolver, the schema of the class is described from its generated
+ * fields instead of scanning its members and their annotations through reflection. Fields are
+ * assumed to be filtered like by {@link TypeMappings#DEFAULT_TYPES}.
+ *
+ * @see org.javersion.object.mapping.VersionableTypeMapping
+ */
+public interface GeneratedVersionable {
+
+    String SUFFIX = "$$Versionable";
+
+    /**
+     * @return new instance created with the no-arg constructor
+     */
+    Object newInstance();
+
+    /**
+     * @return versionable fields of the class and its super classes
+     */
+    List<GeneratedField> getFields();
+
+}
@@ -1,34 +1,87 @@
 package org.javersion.object;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.javersion.core.Revision;
 import org.javersion.core.Version;
 import org.javersion.core.VersionNode;
+import org.javersion.path.PersistentPathMap;
 import org.javersion.path.PropertyPath;
 import org.javersion.path.SchemaPathFilter;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
 @NotThreadSafe
 public class ManagedObjectVersionBuilder<M> extends Version.BuilderBase<PropertyPath, Object, M, ManagedObjectVersionBuilder<M>> {
 
     private final ObjectVersionManager<?, M> manager;
 
-    private final Map<PropertyPath, Object> newProperties;
+    private Map<PropertyPath, Object> newProperties;
+
+    /**
+     * Changeset against snapshotParents computed by dirty tracking, or null
+     */
+    private final Map<PropertyPath, Object> trackedChangeset;
+
+    /**
+     * Full serialization in case trackedChangeset cannot be used
+     */
+    private final Supplier<Map<PropertyPath, Object>> fullSerialization;
 
     private Iterable<Revision> rebaseOn;
 
+    private Object object;
+
+    private PersistentPathMap<Object> snapshot;
+
+    private Set<Revision> snapshotParents;
+
     public ManagedObjectVersionBuilder(ObjectVersionManager<?, M> manager, Map<PropertyPath, Object> newProperties) {
         this.manager = manager;
         this.newProperties = newProperties;
+        this.trackedChangeset = null;
+        this.fullSerialization = null;
+    }
+
+    ManagedObjectVersionBuilder(ObjectVersionManager<?, M> manager, Map<PropertyPath, Object> trackedChangeset,
+                                Supplier<Map<PropertyPath, Object>> fullSerialization) {
+        this.manager = manager;
+        this.trackedChangeset = trackedChangeset;
+        this.fullSerialization = fullSerialization;
+    }
+
+    /**
+     * Serialized properties of <code>object</code> to remember for dirty tracking once this version is committed.
+     * The snapshot is the merged state of the new version only if it's committed on top of <code>parents</code>.
+     */
+    ManagedObjectVersionBuilder<M> snapshot(Object object, PersistentPathMap<Object> snapshot, Set<Revision> parents) {
+        this.object = object;
+        this.snapshot = snapshot;
+        this.snapshotParents = parents;
+        parents(parents);
+        return this;
     }
 
     public ObjectVersion<M> build(boolean commit) {
-        if (manager.useSchemaFilter) {
-            changeset(newProperties, manager.getVersionGraph(), new SchemaPathFilter(manager.getSchema()));
+        boolean snapshotValid = snapshot != null && isSnapshotParents(rebaseOn != null ? rebaseOn : parentRevisions);
+        if (trackedChangeset != null && snapshotValid) {
+            changeset(manager.useSchemaFilter
+                    ? Maps.filterKeys(trackedChangeset, new SchemaPathFilter(manager.getSchema()))
+                    : trackedChangeset);
         } else {
-            changeset(newProperties, manager.getVersionGraph());
+            if (newProperties == null) {
+                newProperties = fullSerialization.get();
+            }
+            if (manager.useSchemaFilter) {
+                changeset(newProperties, manager.getVersionGraph(), new SchemaPathFilter(manager.getSchema()));
+            } else {
+                changeset(newProperties, manager.getVersionGraph());
+            }
         }
         if (rebaseOn != null) {
             parents(rebaseOn);
@@ -36,10 +89,22 @@ public class ManagedObjectVersionBuilder<M> extends Version.BuilderBase<Property
         ObjectVersion<M> version = new ObjectVersion<>(this);
         if (commit) {
             manager.commit(version);
+            if (snapshotValid) {
+                manager.committed(object, snapshot);
+            } else {
+                manager.clearSnapshot();
+            }
         }
         return version;
     }
 
+    private boolean isSnapshotParents(Iterable<Revision> parents) {
+        if (parents == null || snapshotParents == null) {
+            return parents == snapshotParents;
+        }
+        return ImmutableSet.copyOf(parents).equals(snapshotParents);
+    }
+
     public ManagedObjectVersionBuilder<M> rebaseOn(Iterable<Revision> revisions) {
         this.rebaseOn = revisions;
         return this;
@@ -24,6 +24,7 @@ import javax.annotation.concurrent.Immutable;
 import org.javersion.object.types.ValueType;
 import org.javersion.path.PropertyPath;
 import org.javersion.path.Schema;
+import org.javersion.util.Check;
 
 import com.google.common.reflect.TypeToken;
 
@@ -33,25 +34,48 @@ public class ObjectSerializer<O> {
     public final Schema<ValueType> schemaRoot;
 
     public ObjectSerializer(Class<O> clazz) {
-        this.schemaRoot = new DescribeContext(DEFAULT).describeSchema(clazz);
+        this(clazz, DEFAULT);
     }
 
     public ObjectSerializer(TypeToken<O> typeToken) {
-        this.schemaRoot = new DescribeContext(DEFAULT).describeSchema(typeToken);
+        this(typeToken, DEFAULT);
     }
 
+    /**
+     * Uses the schema cached in <code>typeMappings</code>. The schema is shared only by serializers of
+     * the same TypeMappings instance: equal but separately built mappings describe it again, so reuse
+     * custom TypeMappings instead of building them per serializer.
+     */
     public ObjectSerializer(Class<O> clazz, TypeMappings typeMappings) {
-        this.schemaRoot = new DescribeContext(typeMappings).describeSchema(clazz);
+        this.schemaRoot = typeMappings.getSchemaCache().get(clazz);
     }
 
+    /**
+     * @see #ObjectSerializer(Class, TypeMappings)
+     */
     public ObjectSerializer(TypeToken<O> typeToken, TypeMappings typeMappings) {
-        this.schemaRoot = new DescribeContext(typeMappings).describeSchema(typeToken);
+        this.schemaRoot = typeMappings.getSchemaCache().get(typeToken);
+    }
+
+    public ObjectSerializer(Schema<ValueType> schemaRoot) {
+        this.schemaRoot = Check.notNull(schemaRoot, "schemaRoot");
     }
 
     public Map<PropertyPath, Object> toPropertyMap(O object) {
         return new WriteContext(schemaRoot, object).getMap();
     }
 
+    public Map<PropertyPath, Object> toPropertyMap(O object, boolean internPaths) {
+        return new WriteContext(schemaRoot, object, internPaths).getMap();
+    }
+
+    /**
+     * Serialize <code>object</code> into <code>sink</code> without materializing a property map.
+     */
+    public void serialize(O object, PropertySink sink) {
+        new WriteContext(schemaRoot, object, sink, false).writeAll();
+    }
+
     @SuppressWarnings("unchecked")
     public O fromPropertyMap(Map<PropertyPath, Object> properties) {
         return (O) new ReadContext(schemaRoot, properties).getObject();
@@ -17,6 +17,7 @@ package org.javersion.object;
 
 import org.javersion.core.Version;
 import org.javersion.core.AbstractVersionGraph;
+import org.javersion.core.Materialization;
 import org.javersion.core.VersionGraphBuilder;
 import org.javersion.object.ObjectVersionGraph.Builder;
 import org.javersion.path.PropertyPath;
@@ -45,7 +46,15 @@ public final class ObjectVersionGraph<M> extends AbstractVersionGraph<PropertyPa
     }
 
     public static <M> ObjectVersionGraph<M> init(Iterable<? extends Version<PropertyPath, Object, M>> versions) {
-        Builder<M> builder = new Builder<M>();
+        return init(Materialization.EAGER, versions);
+    }
+
+    public static <M> ObjectVersionGraph<M> init(Materialization materialization) {
+        return new ObjectVersionGraph<M>(materialization);
+    }
+
+    public static <M> ObjectVersionGraph<M> init(Materialization materialization, Iterable<? extends Version<PropertyPath, Object, M>> versions) {
+        Builder<M> builder = new Builder<M>(materialization);
         for (Version<PropertyPath, Object, M> version : versions) {
             builder.add(version);
         }
@@ -56,6 +65,10 @@ public final class ObjectVersionGraph<M> extends AbstractVersionGraph<PropertyPa
         super();
     }
 
+    private ObjectVersionGraph(Materialization materialization) {
+        super(materialization);
+    }
+
     private ObjectVersionGraph(Builder<M> builder) {
         super(builder);
     }
@@ -67,7 +80,7 @@ public final class ObjectVersionGraph<M> extends AbstractVersionGraph<PropertyPa
 
     @Override
     protected Builder<M> newEmptyBuilder() {
-        return new Builder<>();
+        return new Builder<>(getMaterialization());
     }
 
     public static class Builder<M> extends VersionGraphBuilder<PropertyPath, Object, M, ObjectVersionGraph<M>, Builder<M>> {
@@ -76,6 +89,10 @@ public final class ObjectVersionGraph<M> extends AbstractVersionGraph<PropertyPa
             super();
         }
 
+        public Builder(Materialization materialization) {
+            super(materialization);
+        }
+
         protected Builder(ObjectVersionGraph<M> parentGraph) {
             super(parentGraph);
         }
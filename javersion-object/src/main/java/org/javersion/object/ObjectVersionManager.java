@@ -5,15 +5,25 @@ import static java.util.Arrays.asList;
 import static org.javersion.core.Version.DEFAULT_BRANCH;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.javersion.core.*;
 import org.javersion.object.types.ValueType;
+import org.javersion.path.PathPattern;
+import org.javersion.path.PersistentPathMap;
 import org.javersion.path.PropertyPath;
 import org.javersion.path.Schema;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
 @NotThreadSafe
 public class ObjectVersionManager<O, M> {
 
@@ -25,6 +35,22 @@ public class ObjectVersionManager<O, M> {
 
     final boolean useSchemaFilter;
 
+    private boolean trackChanges;
+
+    /**
+     * Null until changes are tracked
+     */
+    private Boolean hasReferences;
+
+    /**
+     * Serialized properties of snapshotObject at snapshotHeads, i.e. when it was last committed.
+     */
+    private PersistentPathMap<Object> snapshot;
+
+    private Object snapshotObject;
+
+    private Set<Revision> snapshotHeads;
+
     public ObjectVersionManager(Class<O> clazz) {
         this(new ObjectSerializer<>(clazz), false);
     }
@@ -46,13 +72,151 @@ public class ObjectVersionManager<O, M> {
     public ObjectVersionManager<O, M> init(VersionGraph<PropertyPath, Object, M> versionGraph) {
         this.versionGraph = versionGraph;
         heads = null;
+        clearSnapshot();
         return this;
     }
 
+    /**
+     * Remember serialized properties of committed objects so that {@link #versionBuilder(Object, Iterable)}
+     * needs to serialize only changed subtrees. Costs a copy of the properties per committed version.
+     */
+    public ObjectVersionManager<O, M> trackChanges(boolean trackChanges) {
+        this.trackChanges = trackChanges;
+        if (!trackChanges) {
+            clearSnapshot();
+        } else if (hasReferences == null) {
+            hasReferences = hasReferences(getSchema(), Sets.newIdentityHashSet());
+        }
+        return this;
+    }
+
+    private static boolean hasReferences(Schema<ValueType> schema, Set<Schema<ValueType>> visited) {
+        if (!visited.add(schema)) {
+            return false;
+        }
+        if (schema.getValue().isReference()) {
+            return true;
+        }
+        for (Schema<ValueType> child : schema.getChildren().values()) {
+            if (hasReferences(child, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version builder of the whole object. If changes are tracked, properties are streamed
+     * directly into the snapshot and diffed against the merged properties of the current heads.
+     * The returned builder serializes the object again if it's built on other parents.
+     */
     public ManagedObjectVersionBuilder<M> versionBuilder(O object) {
-        ManagedObjectVersionBuilder<M> builder = new ManagedObjectVersionBuilder<M>(this, serializer.toPropertyMap(object));
-        builder.parents(heads);
-        return builder;
+        if (!trackChanges) {
+            return new ManagedObjectVersionBuilder<M>(this, serializer.toPropertyMap(object)).parents(heads);
+        }
+        Merge<PropertyPath, Object, M> merge = heads == null || heads.isEmpty() ? null : versionGraph.mergeRevisions(heads);
+        if (merge == null || !merge.getConflicts().isEmpty()) {
+            Map<PropertyPath, Object> properties = serializer.toPropertyMap(object);
+            return new ManagedObjectVersionBuilder<M>(this, properties)
+                    .snapshot(object, PersistentPathMap.copyOf(properties), heads);
+        }
+        SnapshotSink sink = new SnapshotSink(Diff.incremental(merge.getMergedProperties(), property -> property.value));
+        serializer.serialize(object, sink);
+
+        ManagedObjectVersionBuilder<M> builder = new ManagedObjectVersionBuilder<M>(this, sink.diff.getDiff(), () -> serializer.toPropertyMap(object));
+        return builder.snapshot(object, sink.snapshot, heads);
+    }
+
+    private static final class SnapshotSink implements PropertySink {
+
+        final Diff.Incremental<PropertyPath, Object> diff;
+
+        PersistentPathMap<Object> snapshot = PersistentPathMap.empty();
+
+        SnapshotSink(Diff.Incremental<PropertyPath, Object> diff) {
+            this.diff = diff;
+        }
+
+        @Override
+        public void put(PropertyPath path, Object value) {
+            diff.accept(path, value);
+            snapshot = snapshot.assoc(path, value);
+        }
+    }
+
+    /**
+     * Version builder that serializes only the given (concrete) paths with their subtrees, and
+     * diffs them against the properties of the same object (by identity) when it was last
+     * committed. Dirty paths must cover all changes since then, e.g. when an object is removed
+     * from a list, the list itself is dirty.
+     * <p>
+     * Falls back to {@link #versionBuilder(Object)} if changes are not tracked, the object
+     * differs from the last committed one, heads have changed since or the schema contains
+     * references: referenced objects are serialized under their own root and are reachable only
+     * through the referring paths. The returned builder serializes the whole object if it's built
+     * on other parents than the current heads.
+     * <p>
+     * Multiple references to the same object are detected only within the dirty subtrees.
+     */
+    public ManagedObjectVersionBuilder<M> versionBuilder(O object, Iterable<PropertyPath> dirtyPaths) {
+        if (!isSnapshotOf(object)) {
+            return versionBuilder(object);
+        }
+        List<PropertyPath> paths = ImmutableList.copyOf(dirtyPaths);
+        PathPattern.Builder pattern = PathPattern.builder();
+        paths.forEach(pattern::matchSubtree);
+        PathPattern dirty = pattern.build();
+
+        PersistentPathMap<Object> previous = snapshot;
+        Map<PropertyPath, Object> changeset = new HashMap<>();
+        Set<PropertyPath> written = new HashSet<>();
+        new WriteContext(serializer.schemaRoot, object, (path, value) -> {
+            written.add(path);
+            if (!Objects.equals(value, previous.get(path))) {
+                changeset.put(path, value);
+            }
+        }, dirty::matchesDescendants).writeAll();
+
+        PersistentPathMap<Object> next = previous;
+        for (PropertyPath path : paths) {
+            for (Map.Entry<PropertyPath, Object> entry : previous.subMap(path)) {
+                if (!written.contains(entry.getKey())) {
+                    next = next.dissoc(entry.getKey());
+                    if (entry.getValue() != null) {
+                        changeset.put(entry.getKey(), null);
+                    }
+                }
+            }
+        }
+        for (PropertyPath path : written) {
+            next = next.assoc(path, changeset.containsKey(path) ? changeset.get(path) : previous.get(path));
+        }
+
+        ManagedObjectVersionBuilder<M> builder = new ManagedObjectVersionBuilder<M>(this, changeset, () -> serializer.toPropertyMap(object));
+        return builder.snapshot(object, next, heads);
+    }
+
+    private boolean isSnapshotOf(O object) {
+        return trackChanges
+                && !hasReferences
+                && snapshot != null
+                && snapshotObject == object
+                && Objects.equals(heads, snapshotHeads)
+                && versionGraph.mergeRevisions(heads).getConflicts().isEmpty();
+    }
+
+    void committed(Object object, PersistentPathMap<Object> snapshot) {
+        if (trackChanges) {
+            this.snapshot = snapshot;
+            this.snapshotObject = object;
+            this.snapshotHeads = heads;
+        }
+    }
+
+    void clearSnapshot() {
+        snapshot = null;
+        snapshotObject = null;
+        snapshotHeads = null;
     }
 
     public MergeObject<O, M> mergeBranches(String... branches) {
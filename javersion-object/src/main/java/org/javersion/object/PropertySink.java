@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.object;
+
+import javax.annotation.Nullable;
+
+import org.javersion.path.PropertyPath;
+
+/**
+ * Receiver of serialized properties in the order they are produced.
+ *
+ * @see ObjectSerializer#serialize(Object, PropertySink)
+ */
+@FunctionalInterface
+public interface PropertySink {
+
+    /**
+     * Called once per path.
+     */
+    void put(PropertyPath path, @Nullable Object value);
+
+}
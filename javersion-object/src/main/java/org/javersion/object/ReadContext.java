@@ -25,6 +25,7 @@ import org.javersion.object.types.ValueType;
 import org.javersion.path.PropertyPath;
 import org.javersion.path.PropertyTree;
 import org.javersion.path.Schema;
+import org.javersion.path.SchemaResolver;
 
 import com.google.common.collect.Maps;
 
@@ -35,6 +36,8 @@ public final class ReadContext {
 
     private final Schema<ValueType> schemaRoot;
 
+    private final SchemaResolver<ValueType> schemaResolver;
+
     private final PropertyTree rootNode;
 
     private final Deque<PropertyTree> bindQueue = new ArrayDeque<>();
@@ -44,6 +47,7 @@ public final class ReadContext {
     public ReadContext(Schema<ValueType> schemaRoot, Map<PropertyPath, Object> properties) {
         this.properties = properties;
         this.schemaRoot = schemaRoot;
+        this.schemaResolver = new SchemaResolver<>(schemaRoot);
         this.rootNode = PropertyTree.build(properties.keySet());
     }
 
@@ -67,7 +71,7 @@ public final class ReadContext {
     public void bindAll() throws Exception {
         while (!bindQueue.isEmpty()) {
             PropertyTree propertyTree = bindQueue.removeFirst();
-            Schema<ValueType> schema = schemaRoot.get(propertyTree.path);
+            Schema<ValueType> schema = schemaResolver.get(propertyTree.path);
             ValueType valueType = schema.getValue();
             Object object = objects.get(propertyTree.path);
             valueType.bind(propertyTree, object, this);
@@ -82,7 +86,7 @@ public final class ReadContext {
         if (objects.containsKey(propertyTree.path)) {
             return objects.get(propertyTree.path);
         } else {
-            Schema<ValueType> schema = schemaRoot.get(propertyTree.path);
+            Schema<ValueType> schema = schemaResolver.get(propertyTree.path);
             Object value = properties.get(propertyTree.path);
             if (value == null) {
                 objects.put(propertyTree.path, null);
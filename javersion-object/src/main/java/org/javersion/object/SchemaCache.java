@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.object;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.javersion.object.types.ValueType;
+import org.javersion.path.Schema;
+import org.javersion.util.Check;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Bounded cache of schemas described with one TypeMappings. Concurrent requests of the same schema
+ * describe it only once.
+ *
+ * @see TypeMappings#getSchemaCache()
+ */
+@ThreadSafe
+public final class SchemaCache {
+
+    private final TypeMappings typeMappings;
+
+    private final LoadingCache<TypeToken<?>, Schema<ValueType>> cache;
+
+    public SchemaCache(TypeMappings typeMappings, long maximumSize) {
+        this(typeMappings, CacheBuilder.newBuilder().maximumSize(maximumSize));
+    }
+
+    /**
+     * Cache of TypeMappings: softly referenced schemas may be collected so that long lived
+     * mappings (e.g. DEFAULT) don't keep described classes and their class loaders reachable.
+     */
+    static SchemaCache softValues(TypeMappings typeMappings, long maximumSize) {
+        return new SchemaCache(typeMappings, CacheBuilder.newBuilder().maximumSize(maximumSize).softValues());
+    }
+
+    private SchemaCache(TypeMappings typeMappings, CacheBuilder<Object, Object> cacheBuilder) {
+        this.typeMappings = Check.notNull(typeMappings, "typeMappings");
+        this.cache = cacheBuilder.build(new CacheLoader<TypeToken<?>, Schema<ValueType>>() {
+            @Override
+            public Schema<ValueType> load(TypeToken<?> type) {
+                return new DescribeContext(SchemaCache.this.typeMappings).describeSchema(type);
+            }
+        });
+    }
+
+    public Schema<ValueType> get(Class<?> clazz) {
+        return get(TypeToken.of(clazz));
+    }
+
+    public Schema<ValueType> get(TypeToken<?> type) {
+        Check.notNull(type, "type");
+        try {
+            return cache.getUnchecked(type);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Describes schemas of <code>classes</code> in parallel.
+     */
+    public void warmUp(Collection<? extends Class<?>> classes) {
+        Check.notNull(classes, "classes");
+        classes.parallelStream().forEach(this::get);
+    }
+
+    /**
+     * Describes schemas of classes listed in the compile time generated {@link VersionableIndex}.
+     *
+     * @return indexed classes
+     */
+    public List<Class<?>> warmUpIndexed(ClassLoader classLoader) {
+        List<Class<?>> classes = VersionableIndex.load(classLoader);
+        warmUp(classes);
+        return classes;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
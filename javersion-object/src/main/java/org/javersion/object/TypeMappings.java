@@ -33,6 +33,7 @@ import org.javersion.object.mapping.*;
 import org.javersion.object.types.PropertyPathType;
 import org.javersion.object.types.UUIDType;
 import org.javersion.path.PropertyPath;
+import org.javersion.reflect.AccessStrategy;
 import org.javersion.reflect.TypeDescriptor;
 import org.javersion.reflect.TypeDescriptors;
 import org.javersion.util.Check;
@@ -107,7 +108,11 @@ public final class TypeMappings {
         DEFAULT_RESOLVER = new CompositeMappingResolver(resolvers);
     }
 
-    public static final TypeDescriptors DEFAULT_TYPES = new TypeDescriptors(member -> !member.isSynthetic());
+    /**
+     * Uses field accessors generated by javersion-processor when present.
+     */
+    public static final TypeDescriptors DEFAULT_TYPES = new TypeDescriptors(member -> !member.isSynthetic(),
+            AccessStrategy.generated(AccessStrategy.REFLECTION));
     public static final TypeMappings DEFAULT = new Builder().build();
 
 
@@ -117,10 +122,17 @@ public final class TypeMappings {
 
     private final MappingResolver mappingResolver;
 
+    /**
+     * Schemas described with these mappings. Kept per instance like TypeDescriptors' caches so that
+     * they are released along with these mappings.
+     */
+    private final SchemaCache schemaCache;
+
     private TypeMappings(Builder builder) {
         this.typeDescriptors = builder.getTypeDescriptors();
         this.mappingResolver = builder.getMappingResolver();
         this.types = ImmutableList.copyOf(builder.getTypeMappings());
+        this.schemaCache = SchemaCache.softValues(this, 1024);
     }
 
     public TypeDescriptor getTypeDescriptor(Class<?> cls) {
@@ -139,6 +151,13 @@ public final class TypeMappings {
         return mappingResolver;
     }
 
+    /**
+     * Cache of schemas used by {@link ObjectSerializer}.
+     */
+    public SchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
     public final static class Builder {
 
         private List<TypeMapping> defaultMappings;
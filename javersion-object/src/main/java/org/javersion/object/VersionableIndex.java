@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.object;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.javersion.util.Check;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Index of {@link Versionable} classes generated at compile time by javersion-processor. One binary
+ * class name per line in {@value #RESOURCE}, possibly in multiple jars.
+ *
+ * @see SchemaCache#warmUpIndexed(ClassLoader)
+ */
+public final class VersionableIndex {
+
+    public static final String RESOURCE = "META-INF/javersion/versionable";
+
+    /**
+     * @return indexed classes of all index resources visible to classLoader, or empty list if none
+     */
+    public static List<Class<?>> load(ClassLoader classLoader) {
+        Check.notNull(classLoader, "classLoader");
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+            while (resources.hasMoreElements()) {
+                readClassNames(resources.nextElement(), classNames);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ImmutableList.Builder<Class<?>> classes = ImmutableList.builder();
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Indexed @Versionable class not found: " + className, e);
+            }
+        }
+        return classes.build();
+    }
+
+    private static void readClassNames(URL url, Set<String> classNames) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        }
+    }
+
+    private VersionableIndex() {}
+}
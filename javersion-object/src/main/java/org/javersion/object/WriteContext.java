@@ -23,6 +23,7 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -30,8 +31,11 @@ import javax.annotation.concurrent.NotThreadSafe;
 import org.javersion.object.types.ValueType;
 import org.javersion.path.PropertyPath;
 import org.javersion.path.Schema;
+import org.javersion.path.SchemaResolver;
 import org.javersion.util.Check;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.Maps;
 
 @NotThreadSafe
@@ -41,15 +45,70 @@ public final class WriteContext {
 
     private final Schema<ValueType> schemaRoot;
 
+    private final SchemaResolver<ValueType> schemaResolver;
+
     private final Deque<QueueItem<PropertyPath, Object>> queue = new ArrayDeque<>();
 
     private final IdentityHashMap<Object, PropertyPath> objects = Maps.newIdentityHashMap();
 
-    private final Map<PropertyPath, Object> properties = Maps.newLinkedHashMap();
+    /**
+     * Result of getMap() or null if streaming to a PropertySink.
+     */
+    private final Map<PropertyPath, Object> properties;
+
+    private final PropertySink sink;
+
+    /**
+     * Paths written so far: key set of properties or null when streaming.
+     */
+    private final Set<PropertyPath> paths;
+
+    private final boolean internPaths;
+
+    /**
+     * Paths (and their subtrees) to skip
+     */
+    private final Predicate<PropertyPath> pathFilter;
 
     public WriteContext(Schema<ValueType> schemaRoot, @Nullable Object root) {
+        this(schemaRoot, root, false);
+    }
+
+    /**
+     * @param internPaths use canonical PropertyPath instances (PropertyPath.intern()) as keys of the result
+     */
+    public WriteContext(Schema<ValueType> schemaRoot, @Nullable Object root, boolean internPaths) {
+        this(schemaRoot, root, Maps.newLinkedHashMap(), null, internPaths, Predicates.alwaysTrue());
+    }
+
+    /**
+     * Streaming WriteContext: properties are passed to <code>sink</code> as they are produced
+     * by {@link #writeAll()}. Written paths are not retained: an object queued again at the same path
+     * (e.g. a referenced object) is recognized by identity, but duplicate values of a path are not detected.
+     */
+    public WriteContext(Schema<ValueType> schemaRoot, @Nullable Object root, PropertySink sink, boolean internPaths) {
+        this(schemaRoot, root, null, Check.notNull(sink, "sink"), internPaths, Predicates.alwaysTrue());
+    }
+
+    /**
+     * Streaming WriteContext that serializes only paths accepted by <code>pathFilter</code>. A path
+     * that is not accepted is skipped along with its subtree.
+     */
+    WriteContext(Schema<ValueType> schemaRoot, @Nullable Object root, PropertySink sink, Predicate<PropertyPath> pathFilter) {
+        this(schemaRoot, root, null, Check.notNull(sink, "sink"), false, Check.notNull(pathFilter, "pathFilter"));
+    }
+
+    private WriteContext(Schema<ValueType> schemaRoot, @Nullable Object root,
+                         @Nullable Map<PropertyPath, Object> properties, @Nullable PropertySink sink, boolean internPaths,
+                         Predicate<PropertyPath> pathFilter) {
         this.schemaRoot = Check.notNull(schemaRoot, "schemaRoot");
+        this.schemaResolver = new SchemaResolver<>(schemaRoot);
         this.root = root;
+        this.properties = properties;
+        this.sink = sink != null ? sink : properties::put;
+        this.paths = properties != null ? properties.keySet() : null;
+        this.internPaths = internPaths;
+        this.pathFilter = pathFilter;
     }
 
     public void serialize(PropertyPath path, Object object) {
@@ -57,12 +116,20 @@ public final class WriteContext {
     }
 
     public Map<PropertyPath, Object> getMap() {
+        if (properties == null) {
+            throw new IllegalStateException("getMap is not supported when streaming to a PropertySink");
+        }
+        writeAll();
+        return unmodifiableMap(properties);
+    }
+
+    public void writeAll() {
         serialize(ROOT, root);
         QueueItem<PropertyPath, Object> currentItem;
         while ((currentItem = queue.pollFirst()) != null) {
             PropertyPath path = currentItem.key;
             Object value = currentItem.value;
-            if (!properties.containsKey(path)) {
+            if (!isWritten(path, value) && pathFilter.apply(path)) {
                 if (value == null) {
                     put(path, null);
                 } else {
@@ -76,15 +143,21 @@ public final class WriteContext {
                 }
             }
         }
-        return unmodifiableMap(properties);
+    }
+
+    private boolean isWritten(PropertyPath path, Object value) {
+        if (paths != null) {
+            return paths.contains(path);
+        }
+        return value != null && path.equals(objects.get(value));
     }
 
     public boolean isMappedPath(PropertyPath path) {
-        return schemaRoot.find(path) != null;
+        return schemaResolver.find(path) != null;
     }
 
     private Schema<ValueType> getSchema(PropertyPath path) {
-        return schemaRoot.get(path);
+        return schemaResolver.get(path);
     }
 
     private void checkIllegalReference(PropertyPath path, Object value) {
@@ -97,10 +170,10 @@ public final class WriteContext {
     }
 
     public void put(PropertyPath path, Object value) {
-        if (properties.containsKey(path)) {
+        if (paths != null && paths.contains(path)) {
             throw new IllegalArgumentException("Duplicate value for " + path);
         }
-        properties.put(path, value);
+        sink.put(internPaths ? path.intern() : path, value);
     }
 
     public Schema<ValueType> getRootMapping() {
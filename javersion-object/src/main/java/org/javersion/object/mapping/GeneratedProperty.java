@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.object.mapping;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Objects;
+
+import org.javersion.object.GeneratedField;
+import org.javersion.reflect.ElementDescriptor;
+import org.javersion.reflect.FieldDescriptor;
+import org.javersion.reflect.Property;
+import org.javersion.reflect.ReflectionException;
+import org.javersion.reflect.TypeDescriptor;
+import org.javersion.reflect.TypeDescriptors;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Property of a generated field. Generated fields are not annotated (other than with annotations
+ * resolved at compile time), so this is also the annotation-free parent of the field's TypeContext.
+ * Fields without generated accessor are accessed through reflection once accessed.
+ */
+final class GeneratedProperty implements Property, ElementDescriptor {
+
+    private final GeneratedField field;
+
+    private final TypeDescriptors typeDescriptors;
+
+    private volatile FieldDescriptor fieldDescriptor;
+
+    GeneratedProperty(GeneratedField field, TypeDescriptors typeDescriptors) {
+        this.field = field;
+        this.typeDescriptors = typeDescriptors;
+    }
+
+    @Override
+    public Object get(Object object) {
+        if (field.accessor == null) {
+            return fieldDescriptor().get(object);
+        }
+        try {
+            return field.accessor.get(object);
+        } catch (RuntimeException e) {
+            throw new ReflectionException(e);
+        }
+    }
+
+    @Override
+    public void set(Object object, Object value) {
+        if (field.accessor == null) {
+            fieldDescriptor().set(object, value);
+            return;
+        }
+        try {
+            field.accessor.set(object, value);
+        } catch (RuntimeException e) {
+            throw new ReflectionException(e);
+        }
+    }
+
+    private FieldDescriptor fieldDescriptor() {
+        FieldDescriptor result = fieldDescriptor;
+        if (result == null) {
+            fieldDescriptor = result = typeDescriptors.get(field.declaringClass).getField(field.fieldName);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isReadable() {
+        return true;
+    }
+
+    @Override
+    public boolean isReadableFrom(TypeDescriptor typeDescriptor) {
+        return typeDescriptor.isSubTypeOf(field.declaringClass);
+    }
+
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    @Override
+    public boolean isWritableFrom(TypeDescriptor typeDescriptor) {
+        return typeDescriptor.isSubTypeOf(field.declaringClass);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return typeDescriptors.get(field.type);
+    }
+
+    @Override
+    public List<Annotation> getAnnotations() {
+        return ImmutableList.of();
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return null;
+    }
+
+    @Override
+    public <A extends Annotation> boolean hasAnnotation(Class<A> annotationClass) {
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * field.declaringClass.hashCode() + field.fieldName.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof GeneratedProperty) {
+            GeneratedProperty other = (GeneratedProperty) obj;
+            return field.declaringClass.equals(other.field.declaringClass)
+                    && field.fieldName.equals(other.field.fieldName)
+                    && Objects.equals(typeDescriptors, other.typeDescriptors);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return field.declaringClass.getCanonicalName() + "." + field.fieldName;
+    }
+}
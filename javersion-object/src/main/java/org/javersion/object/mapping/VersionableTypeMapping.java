@@ -17,21 +17,61 @@ package org.javersion.object.mapping;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.javersion.object.DescribeContext;
+import org.javersion.object.GeneratedField;
+import org.javersion.object.GeneratedVersionable;
 import org.javersion.object.TypeContext;
+import org.javersion.object.TypeMappings;
 import org.javersion.object.Versionable;
 import org.javersion.object.mapping.MappingResolver.Result;
+import org.javersion.object.types.BasicObjectType;
+import org.javersion.object.types.IdentifiableType;
+import org.javersion.object.types.ObjectCreator;
+import org.javersion.object.types.ObjectIdentifier;
 import org.javersion.object.types.ValueType;
 import org.javersion.path.PropertyPath;
+import org.javersion.reflect.ParameterDescriptor;
+import org.javersion.reflect.Property;
+import org.javersion.reflect.ReflectionException;
+import org.javersion.reflect.StaticExecutable;
 import org.javersion.reflect.TypeDescriptor;
 import org.javersion.util.Check;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Describes {@link Versionable} classes. With the default MappingResolver, classes with a
+ * {@link GeneratedVersionable} are described from the generated fields without scanning their
+ * members through reflection.
+ */
 public class VersionableTypeMapping implements TypeMapping {
 
+    /**
+     * Generated classes are loaded by the class loader of the described class, so they don't keep
+     * the described class reachable any longer than it otherwise would be.
+     */
+    private static final ClassValue<Optional<GeneratedVersionable>> GENERATED = new ClassValue<Optional<GeneratedVersionable>>() {
+        @Override
+        protected Optional<GeneratedVersionable> computeValue(Class<?> type) {
+            try {
+                Class<?> generated = Class.forName(type.getName() + GeneratedVersionable.SUFFIX, true, type.getClassLoader());
+                return Optional.of((GeneratedVersionable) generated.newInstance());
+            } catch (ClassNotFoundException e) {
+                return Optional.empty();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new ReflectionException(e);
+            }
+        }
+    };
+
     @Override
     public boolean applies(PropertyPath path, TypeContext typeContext) {
         return path != null && typeContext.type.hasAnnotation(Versionable.class);
@@ -49,12 +89,41 @@ public class VersionableTypeMapping implements TypeMapping {
         TypeDescriptor type = typeContext.type;
         String alias = Check.notNull(mappingResolver.alias(type).value, "alias");
         typesByAlias.put(alias, type);
-        registerSubclasses(mappingResolver, typesByAlias, mappingResolver.subclasses(type));
+        Result<Map<TypeDescriptor, String>> subclasses = mappingResolver.subclasses(type);
+        if (!subclasses.isPreset() && mappingResolver == TypeMappings.DEFAULT_RESOLVER) {
+            Optional<GeneratedVersionable> generated = GENERATED.get(type.getRawType());
+            if (generated.isPresent()) {
+                return Optional.of(describeGenerated(path, type, alias, generated.get(), context));
+            }
+        }
+        registerSubclasses(mappingResolver, typesByAlias, subclasses);
 
         ObjectTypeMapping objectTypeMapping = new ObjectTypeMapping(typesByAlias);
         return objectTypeMapping.describe(path, typeContext, context);
     }
 
+    private static ValueType describeGenerated(PropertyPath path, TypeDescriptor type, String alias,
+                                               GeneratedVersionable generated, DescribeContext context) {
+        Map<String, Property> properties = new HashMap<>();
+        ObjectIdentifier identifier = null;
+        for (GeneratedField field : generated.getFields()) {
+            GeneratedProperty property = new GeneratedProperty(field, type.getTypeDescriptors());
+            TypeContext typeContext = new TypeContext(property, property.getType());
+            if (field.id) {
+                if (identifier != null) {
+                    throw new IllegalArgumentException(type.getSimpleName() + " should not have multiple @Id-properties");
+                }
+                IdentifiableType idType = (IdentifiableType) context.describeNow(path.property(field.name), typeContext);
+                identifier = new ObjectIdentifier(property, idType, field.name);
+            } else if (!properties.containsKey(field.name)) {
+                properties.put(field.name, property);
+                context.describeAsync(path.property(field.name), typeContext);
+            }
+        }
+        ObjectCreator creator = new ObjectCreator(new GeneratedCreator(generated), ImmutableSet.<String>of());
+        return BasicObjectType.of(type, alias, creator, identifier, properties);
+    }
+
     private void registerSubclasses(MappingResolver mappingResolver, Map<String, TypeDescriptor> typesByAlias, Result<Map<TypeDescriptor, String>> subclasses) {
         if (subclasses.isPreset()) {
             for (Map.Entry<TypeDescriptor, String> entry : subclasses.value.entrySet()) {
@@ -68,4 +137,26 @@ public class VersionableTypeMapping implements TypeMapping {
         }
     }
 
-}
\ No newline at end of file
+    private static final class GeneratedCreator implements StaticExecutable {
+
+        private final GeneratedVersionable generated;
+
+        GeneratedCreator(GeneratedVersionable generated) {
+            this.generated = generated;
+        }
+
+        @Override
+        public Object invokeStatic(Object... args) {
+            try {
+                return generated.newInstance();
+            } catch (RuntimeException e) {
+                throw new ReflectionException(new InvocationTargetException(e));
+            }
+        }
+
+        @Override
+        public List<ParameterDescriptor> getParameters() {
+            return ImmutableList.of();
+        }
+    }
+}
@@ -17,7 +17,6 @@ package org.javersion.object.types;
 
 import java.util.Map;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 import javax.annotation.Nullable;
 
@@ -80,6 +79,33 @@ public class BasicObjectType implements ObjectType {
 
     private final TypeDescriptor type;
 
+    /**
+     * Precomputed child nodes of constructor parameters in parameter order.
+     */
+    private final NodeId[] parameterIds;
+
+    /**
+     * Serialized properties (including writable identifier) and their child nodes as parallel arrays.
+     */
+    private final NodeId[] serializedIds;
+
+    private final Property[] serializedProperties;
+
+    /**
+     * Writable properties that are not constructor parameters and their child nodes as parallel arrays.
+     * Properties are bound also from key children (["name"]).
+     */
+    private final NodeId[] boundIds;
+
+    private final NodeId[] boundKeyIds;
+
+    private final Property[] boundProperties;
+
+    /**
+     * Child node of writable identifier that is not a constructor parameter or null.
+     */
+    private final NodeId identifierId;
+
     private BasicObjectType(TypeDescriptor type,
                             String alias,
                             ObjectCreator constructor,
@@ -90,24 +116,61 @@ public class BasicObjectType implements ObjectType {
         this.constructor = constructor;
         this.identifier = identifier;
         this.properties = ImmutableMap.copyOf(properties);
+
+        this.parameterIds = constructor != null
+                ? constructor.getParameters().stream().map(NodeId::property).toArray(NodeId[]::new)
+                : new NodeId[0];
+
+        boolean serializeIdentifier = identifier != null && identifier.property.isWritable();
+        int size = this.properties.size() + (serializeIdentifier ? 1 : 0);
+        this.serializedIds = new NodeId[size];
+        this.serializedProperties = new Property[size];
+        int i = 0;
+        for (Map.Entry<String, Property> entry : this.properties.entrySet()) {
+            serializedIds[i] = propertyId(entry.getKey());
+            serializedProperties[i++] = entry.getValue();
+        }
+        if (serializeIdentifier) {
+            serializedIds[i] = propertyId(identifier.name);
+            serializedProperties[i] = identifier.property;
+        }
+
+        Map<String, Property> bound = Maps.filterEntries(this.properties,
+                entry -> entry.getValue().isWritable() && !hasParameter(constructor, entry.getKey()));
+        this.boundIds = bound.keySet().stream().map(BasicObjectType::propertyId).toArray(NodeId[]::new);
+        this.boundKeyIds = bound.keySet().stream().map(NodeId::key).toArray(NodeId[]::new);
+        this.boundProperties = bound.values().toArray(new Property[bound.size()]);
+
+        this.identifierId = serializeIdentifier && !hasParameter(constructor, identifier.name)
+                ? propertyId(identifier.name)
+                : null;
+    }
+
+    /**
+     * Validates the property name once instead of on every serialization.
+     */
+    private static NodeId propertyId(String name) {
+        return PropertyPath.ROOT.property(name).getNodeId();
+    }
+
+    private static boolean hasParameter(ObjectCreator constructor, String name) {
+        return constructor != null && constructor.hasParameter(name);
     }
 
     @Override
     public Object instantiate(PropertyTree propertyTree, Object valueObject, ReadContext context) throws Exception {
         Object[] params = constructor.newParametersArray();
-        int i=0;
-        for (String param : constructor.getParameters()) {
-            PropertyTree child = propertyTree.get(NodeId.property(param));
-            Object value = child != null ? context.getObject(child) : null;
-            params[i++] = value;
+        for (int i=0; i < parameterIds.length; i++) {
+            PropertyTree child = propertyTree.get(parameterIds[i]);
+            params[i] = child != null ? context.getObject(child) : null;
         }
         if (constructor.hasParameters()) {
             // Ensure that constructor parameters are bound
             context.bindAll();
         }
         Object object = constructor.newInstance(params);
-        if (identifier != null && !constructor.hasParameter(identifier.name) && identifier.property.isWritable()) {
-            PropertyTree child = propertyTree.get(NodeId.property(identifier.name));
+        if (identifierId != null) {
+            PropertyTree child = propertyTree.get(identifierId);
             if (child != null) {
                 Object value = context.getObject(child);
                 if (value != null) {
@@ -120,14 +183,13 @@ public class BasicObjectType implements ObjectType {
 
     @Override
     public void bind(PropertyTree propertyTree, Object object, ReadContext context) throws Exception {
-        for (PropertyTree child : propertyTree.getChildren()) {
-            NodeId nodeId = child.getNodeId();
-            if (nodeId.isKey() && !constructor.hasParameter(nodeId.getKey())) {
-                Property property = properties.get(nodeId.getKey());
-                if (property != null && property.isWritable()) {
-                    Object value = context.getObject(child);
-                    property.set(object, value);
-                }
+        for (int i=0; i < boundIds.length; i++) {
+            PropertyTree child = propertyTree.get(boundIds[i]);
+            if (child == null) {
+                child = propertyTree.get(boundKeyIds[i]);
+            }
+            if (child != null) {
+                boundProperties[i].set(object, context.getObject(child));
             }
         }
     }
@@ -143,15 +205,10 @@ public class BasicObjectType implements ObjectType {
     @Override
     public void serialize(PropertyPath path, Object object, WriteContext context) {
         context.put(path, Persistent.object(alias));
-        BiConsumer<String, Property> propertySerializer = (name, property) -> {
-            PropertyPath subPath = path.property(name);
-            Object value = property.get(object);
+        for (int i=0; i < serializedIds.length; i++) {
+            PropertyPath subPath = serializedIds[i].toPath(path);
+            Object value = serializedProperties[i].get(object);
             context.serialize(subPath, value);
-        };
-        properties.forEach(propertySerializer);
-
-        if (identifier != null && identifier.property.isWritable()) {
-            propertySerializer.accept(identifier.name, identifier.property);
         }
     }
 
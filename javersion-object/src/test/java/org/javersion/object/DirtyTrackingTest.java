@@ -0,0 +1,215 @@
+package org.javersion.object;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.path.PropertyPath.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.javersion.core.Diff;
+import org.javersion.core.Revision;
+import org.javersion.path.PropertyPath;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+public class DirtyTrackingTest {
+
+    @Versionable
+    public static class Document {
+        public String title;
+        public Section summary;
+        public List<Section> sections = new ArrayList<>();
+    }
+
+    @Versionable
+    public static class Section {
+        public String heading;
+        public String text;
+
+        public Section() {}
+
+        public Section(String heading, String text) {
+            this.heading = heading;
+            this.text = text;
+        }
+    }
+
+    private final ObjectVersionManager<Document, Void> versionManager =
+            new ObjectVersionManager<Document, Void>(Document.class).init().trackChanges(true);
+
+    private final ObjectSerializer<Document> serializer = new ObjectSerializer<>(Document.class);
+
+    @Test
+    public void only_dirty_subtrees_are_serialized() {
+        Document doc = newDocument();
+        versionManager.versionBuilder(doc).build();
+
+        doc.sections.get(1).text = "changed";
+        doc.title = "not marked dirty";
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc, ImmutableList.of(parse("sections[1]"))).build();
+
+        assertThat(version.changeset).isEqualTo(singleton("sections[1].text", "changed"));
+    }
+
+    @Test
+    public void changeset_matches_full_diff() {
+        Document doc = newDocument();
+        versionManager.versionBuilder(doc).build();
+
+        Map<PropertyPath, Object> before = serializer.toPropertyMap(doc);
+        doc.title = "new title";
+        doc.summary = null;
+        doc.sections.remove(0);
+        doc.sections.get(0).heading = "first";
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc,
+                ImmutableList.of(parse("title"), parse("summary"), parse("sections"))).build();
+
+        Map<PropertyPath, Object> after = serializer.toPropertyMap(doc);
+        assertThat(version.changeset).isEqualTo(Diff.diff(before, after));
+        assertThat(mergedProperties()).isEqualTo(nonNull(after));
+    }
+
+    @Test
+    public void full_serialization_is_streamed_into_changeset_and_snapshot() {
+        Document doc = newDocument();
+        versionManager.versionBuilder(doc).build();
+
+        Map<PropertyPath, Object> before = serializer.toPropertyMap(doc);
+        doc.title = "new title";
+        doc.sections.remove(1);
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc).build();
+        assertThat(version.changeset).isEqualTo(Diff.diff(before, serializer.toPropertyMap(doc)));
+
+        doc.sections.get(0).text = "changed";
+        version = versionManager.versionBuilder(doc, ImmutableList.of(parse("sections[0].text"))).build();
+        assertThat(version.changeset).isEqualTo(singleton("sections[0].text", "changed"));
+        assertThat(mergedProperties()).isEqualTo(nonNull(serializer.toPropertyMap(doc)));
+    }
+
+    @Test
+    public void consecutive_incremental_versions() {
+        Document doc = newDocument();
+        versionManager.versionBuilder(doc).build();
+
+        doc.sections.add(new Section("c", "text c"));
+        versionManager.versionBuilder(doc, ImmutableList.of(parse("sections"))).build();
+
+        doc.sections.get(2).text = null;
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc, ImmutableList.of(parse("sections[2].text"))).build();
+
+        assertThat(version.changeset).isEqualTo(singleton("sections[2].text", null));
+        assertThat(mergedProperties()).isEqualTo(nonNull(serializer.toPropertyMap(doc)));
+    }
+
+    @Test
+    public void uncommitted_version_is_not_remembered() {
+        Document doc = newDocument();
+        versionManager.versionBuilder(doc).build();
+
+        doc.title = "uncommitted";
+        versionManager.versionBuilder(doc, ImmutableList.of(parse("title"))).build(false);
+
+        doc.title = "committed";
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc, ImmutableList.of(parse("title"))).build();
+        assertThat(version.changeset).isEqualTo(singleton("title", "committed"));
+    }
+
+    @Test
+    public void full_serialization_of_other_object() {
+        versionManager.versionBuilder(newDocument()).build();
+
+        Document other = newDocument();
+        other.title = "other";
+        ObjectVersion<Void> version = versionManager.versionBuilder(other, ImmutableList.of()).build();
+        assertThat(version.changeset).isEqualTo(singleton("title", "other"));
+    }
+
+    @Test
+    public void full_serialization_without_tracking() {
+        ObjectVersionManager<Document, Void> untracked = new ObjectVersionManager<Document, Void>(Document.class).init();
+        Document doc = newDocument();
+        untracked.versionBuilder(doc).build();
+
+        doc.title = "changed";
+        ObjectVersion<Void> version = untracked.versionBuilder(doc, ImmutableList.of()).build();
+        assertThat(version.changeset).isEqualTo(singleton("title", "changed"));
+    }
+
+    @Test
+    public void rebase_serializes_whole_object() {
+        Document doc = newDocument();
+        Revision r1 = versionManager.versionBuilder(doc).build().revision;
+
+        doc.title = "second";
+        versionManager.versionBuilder(doc, ImmutableList.of(parse("title"))).build();
+
+        doc.sections.get(0).text = "rebased";
+        versionManager.versionBuilder(doc, ImmutableList.of(parse("sections[0]")))
+                .rebaseOn(ImmutableSet.of(r1))
+                .build();
+        assertThat(mergedProperties().get(parse("title"))).isEqualTo("title");
+
+        // Title of the rebase target is overwritten just like without dirty tracking
+        doc.sections.get(1).text = "after rebase";
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc, ImmutableList.of(parse("sections[1]"))).build();
+        assertThat(version.changeset).containsEntry(parse("title"), "second");
+        assertThat(mergedProperties()).isEqualTo(nonNull(serializer.toPropertyMap(doc)));
+    }
+
+    @Test
+    public void changeset_against_explicit_parents() {
+        Document doc = newDocument();
+        Revision r1 = versionManager.versionBuilder(doc).build().revision;
+
+        doc.title = "second";
+        versionManager.versionBuilder(doc, ImmutableList.of(parse("title"))).build();
+
+        Map<PropertyPath, Object> before = serializer.toPropertyMap(newDocument());
+        doc.sections.get(0).text = "changed";
+        ObjectVersion<Void> version = versionManager.versionBuilder(doc, ImmutableList.of(parse("sections[0]")))
+                .parents(r1)
+                .build();
+        assertThat(version.changeset).isEqualTo(Diff.diff(before, serializer.toPropertyMap(doc)));
+        assertThat(mergedProperties()).isEqualTo(nonNull(serializer.toPropertyMap(doc)));
+    }
+
+    @Test
+    public void full_serialization_of_references() {
+        ObjectVersionManager<ReferencesTest.Container, Void> references = new ObjectVersionManager<ReferencesTest.Container, Void>(
+                new ObjectSerializer<>(ReferencesTest.Container.class, ReferencesTest.typeMappings), false).init().trackChanges(true);
+        ReferencesTest.Node node = new ReferencesTest.Node(1);
+        ReferencesTest.Container container = new ReferencesTest.Container(node);
+        references.versionBuilder(container).build();
+
+        node.left = new ReferencesTest.Node(2);
+        ObjectVersion<Void> version = references.versionBuilder(container, ImmutableList.of(parse("nodes[1]"))).build();
+        assertThat(version.changeset).containsEntry(parse("nodes[2].id"), 2l);
+    }
+
+    private Map<PropertyPath, Object> mergedProperties() {
+        return versionManager.getVersionGraph().mergeRevisions(versionManager.getHeads()).getProperties();
+    }
+
+    private static Map<PropertyPath, Object> nonNull(Map<PropertyPath, Object> properties) {
+        return Maps.filterValues(properties, value -> value != null);
+    }
+
+    private static Map<PropertyPath, Object> singleton(String path, Object value) {
+        Map<PropertyPath, Object> map = Maps.newHashMap();
+        map.put(parse(path), value);
+        return map;
+    }
+
+    private static Document newDocument() {
+        Document doc = new Document();
+        doc.title = "title";
+        doc.summary = new Section("summary", "summary text");
+        doc.sections.add(new Section("a", "text a"));
+        doc.sections.add(new Section("b", "text b"));
+        return doc;
+    }
+}
@@ -0,0 +1,86 @@
+package org.javersion.object;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.javersion.core.Diff;
+import org.javersion.path.PropertyPath;
+import org.javersion.util.PersistentHashMap;
+import org.junit.Test;
+
+public class PropertySinkTest {
+
+    @Versionable
+    public static class Node {
+        public String name;
+        public List<Node> children = new ArrayList<>();
+
+        public Node() {}
+
+        public Node(String name, Node... children) {
+            this.name = name;
+            for (Node child : children) {
+                this.children.add(child);
+            }
+        }
+    }
+
+    private final ObjectSerializer<Node> serializer = new ObjectSerializer<>(Node.class);
+
+    @Test
+    public void streamed_properties_match_property_map() {
+        Node root = new Node("root", new Node("a"), new Node("b", new Node("c")));
+        Map<PropertyPath, Object> streamed = new LinkedHashMap<>();
+        serializer.serialize(root, streamed::put);
+
+        Map<PropertyPath, Object> expected = serializer.toPropertyMap(root);
+        assertThat(streamed).isEqualTo(expected);
+        assertThat(streamed.keySet()).containsExactlyElementsOf(expected.keySet());
+    }
+
+    @Test
+    public void stream_into_diff() {
+        Node root = new Node("root", new Node("a"), new Node("b"));
+        Map<PropertyPath, Object> oldProperties = serializer.toPropertyMap(root);
+
+        root.name = "new root";
+        root.children.remove(1);
+        Diff.Incremental<PropertyPath, Object> diff = Diff.incremental(PersistentHashMap.copyOf(oldProperties));
+        serializer.serialize(root, diff::accept);
+
+        assertThat(diff.getDiff()).isEqualTo(Diff.diff(oldProperties, serializer.toPropertyMap(root)));
+    }
+
+    @Test
+    public void referenced_objects_are_streamed_once() {
+        ObjectSerializer<ReferencesTest.Container> containerSerializer =
+                new ObjectSerializer<>(ReferencesTest.Container.class, ReferencesTest.typeMappings);
+        ReferencesTest.Node shared = new ReferencesTest.Node(3);
+        ReferencesTest.Node left = new ReferencesTest.Node(1), right = new ReferencesTest.Node(2);
+        left.left = shared;
+        right.right = shared;
+        ReferencesTest.Container container = new ReferencesTest.Container(left);
+        container.add(right);
+
+        List<PropertyPath> streamed = new ArrayList<>();
+        containerSerializer.serialize(container, (path, value) -> streamed.add(path));
+        assertThat(streamed).isSubsetOf(containerSerializer.toPropertyMap(container).keySet());
+        assertThat(streamed).doesNotHaveDuplicates();
+        assertThat(streamed).hasSameSizeAs(containerSerializer.toPropertyMap(container).keySet());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicate_references_are_detected_while_streaming() {
+        Node child = new Node("child");
+        serializer.serialize(new Node("root", child, child), (path, value) -> {});
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void get_map_of_streaming_context() {
+        new WriteContext(serializer.schemaRoot, new Node(), (path, value) -> {}, false).getMap();
+    }
+}
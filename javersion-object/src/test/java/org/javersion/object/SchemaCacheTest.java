@@ -0,0 +1,80 @@
+package org.javersion.object;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.javersion.object.types.ValueType;
+import org.javersion.path.PropertyPath;
+import org.javersion.path.Schema;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+
+public class SchemaCacheTest {
+
+    @Versionable
+    public static class A {
+        public String name;
+        public B b;
+    }
+
+    @Versionable
+    public static class B {
+        public List<A> list;
+    }
+
+    public static class Unknown {
+        public Object value;
+    }
+
+    @Test
+    public void schema_is_described_once_per_type() {
+        SchemaCache cache = new SchemaCache(TypeMappings.DEFAULT, 10);
+        Schema<ValueType> schema = cache.get(A.class);
+        assertThat(cache.get(A.class)).isSameAs(schema);
+        assertThat(cache.get(TypeToken.of(A.class))).isSameAs(schema);
+
+        cache.invalidateAll();
+        assertThat(cache.get(A.class)).isNotSameAs(schema);
+    }
+
+    @Test
+    public void parameterized_types() {
+        SchemaCache cache = new SchemaCache(TypeMappings.DEFAULT, 10);
+        Schema<ValueType> strings = cache.get(new TypeToken<Map<String, String>>() {});
+        Schema<ValueType> longs = cache.get(new TypeToken<Map<String, Long>>() {});
+        assertThat(strings).isNotSameAs(longs);
+        assertThat(cache.get(new TypeToken<Map<String, String>>() {})).isSameAs(strings);
+    }
+
+    @Test
+    public void warm_up() {
+        SchemaCache cache = new SchemaCache(TypeMappings.DEFAULT, 10);
+        cache.warmUp(ImmutableList.of(A.class, B.class));
+        Schema<ValueType> schema = cache.get(A.class);
+        assertThat(schema.get(PropertyPath.parse("b.list[].name"))).isNotNull();
+    }
+
+    @Test
+    public void serializers_share_schema() {
+        assertThat(new ObjectSerializer<>(A.class).schemaRoot).isSameAs(new ObjectSerializer<>(A.class).schemaRoot);
+        assertThat(new ObjectSerializer<>(A.class).schemaRoot).isSameAs(TypeMappings.DEFAULT.getSchemaCache().get(A.class));
+    }
+
+    @Test
+    public void schemas_are_cached_per_type_mappings_instance() {
+        TypeMappings typeMappings = TypeMappings.builder().build();
+        Schema<ValueType> schema = new ObjectSerializer<>(A.class, typeMappings).schemaRoot;
+        assertThat(new ObjectSerializer<>(A.class, typeMappings).schemaRoot).isSameAs(schema);
+        assertThat(new ObjectSerializer<>(A.class).schemaRoot).isNotSameAs(schema);
+        assertThat(new ObjectSerializer<>(A.class, TypeMappings.builder().build()).schemaRoot).isNotSameAs(schema);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void describe_failure_is_propagated() {
+        new SchemaCache(TypeMappings.DEFAULT, 10).get(Unknown.class);
+    }
+}
@@ -5,15 +5,21 @@ import static org.javersion.path.PropertyPath.parse;
 import static org.javersion.reflect.ConstructorSignature.STRING_CONSTRUCTOR;
 import static org.javersion.reflect.TypeDescriptors.DEFAULT;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.javersion.core.Persistent;
 import org.javersion.object.Id;
 import org.javersion.object.ObjectSerializer;
 import org.javersion.object.PolymorphismTest.Pet;
+import org.javersion.object.ReadContext;
 import org.javersion.object.VersionCreator;
 import org.javersion.object.Versionable;
 import org.javersion.path.PropertyPath;
+import org.javersion.path.PropertyTree;
+import org.javersion.path.Schema;
 import org.javersion.reflect.TypeDescriptor;
 import org.junit.Test;
 
@@ -48,6 +54,21 @@ public class BasicObjectTypeTest {
         }
     }
 
+    @Versionable
+    public static class Planned {
+        @Id
+        public String id;
+
+        public final String name;
+
+        public String description;
+
+        @VersionCreator
+        public Planned(@JsonProperty("name") String name) {
+            this.name = name;
+        }
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void toNodeId_throws_exception_for_non_identifiable() {
         TypeDescriptor type = DEFAULT.get(Pet.class);
@@ -93,4 +114,71 @@ public class BasicObjectTypeTest {
         assertThat(instance.foo).isNull();
         assertThat(instance.bar).isNull();
     }
+
+    @Test
+    public void serialize_in_property_order_with_identifier_last() {
+        ObjectSerializer<Planned> serializer = new ObjectSerializer<>(Planned.class);
+        BasicObjectType objectType = (BasicObjectType) serializer.schemaRoot.getValue();
+        Planned planned = newPlanned();
+
+        // Order and values of the original property by property serialization
+        Map<PropertyPath, Object> expected = new LinkedHashMap<>();
+        expected.put(PropertyPath.ROOT, Persistent.object(objectType.getAlias()));
+        objectType.getProperties().forEach((name, property) -> expected.put(PropertyPath.ROOT.property(name), property.get(planned)));
+        expected.put(PropertyPath.ROOT.property(objectType.getIdentifier().name), planned.id);
+
+        assertThat(new ArrayList<>(serializer.toPropertyMap(planned).entrySet()))
+                .isEqualTo(new ArrayList<>(expected.entrySet()));
+    }
+
+    @Test
+    public void bind_writable_properties_that_are_not_constructor_parameters() {
+        ObjectSerializer<Planned> serializer = new ObjectSerializer<>(Planned.class);
+        Planned planned = serializer.fromPropertyMap(serializer.toPropertyMap(newPlanned()));
+
+        assertThat(planned.id).isEqualTo("id");
+        assertThat(planned.name).isEqualTo("name");
+        assertThat(planned.description).isEqualTo("description");
+    }
+
+    @Test
+    public void bind_present_properties_only() {
+        ObjectSerializer<Planned> serializer = new ObjectSerializer<>(Planned.class);
+        Map<PropertyPath, Object> properties = new HashMap<>(serializer.toPropertyMap(newPlanned()));
+        properties.remove(parse("description"));
+        properties.remove(parse("id"));
+
+        Planned planned = serializer.fromPropertyMap(properties);
+        assertThat(planned.id).isNull();
+        assertThat(planned.name).isEqualTo("name");
+        assertThat(planned.description).isNull();
+    }
+
+    @Test
+    public void bind_properties_from_keys() throws Exception {
+        ObjectSerializer<Planned> serializer = new ObjectSerializer<>(Planned.class);
+        BasicObjectType objectType = (BasicObjectType) serializer.schemaRoot.getValue();
+        PropertyPath description = parse("[\"description\"]");
+        Schema.Builder<ValueType> schema = new Schema.Builder<>(objectType);
+        schema.getOrCreate(description, StringValueType.STRING);
+        Map<PropertyPath, Object> properties = ImmutableMap.of(description, "description");
+
+        Planned planned = new Planned("name");
+        objectType.bind(PropertyTree.build(properties.keySet()), planned, new ReadContext(schema.build(), properties));
+        assertThat(planned.description).isEqualTo("description");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void property_names_are_validated() {
+        TypeDescriptor type = DEFAULT.get(MyClass.class);
+        BasicObjectType.of(type, "MyClass", new ObjectCreator(type), null,
+                ImmutableMap.of("not a property", type.getField("bar")));
+    }
+
+    private static Planned newPlanned() {
+        Planned planned = new Planned("name");
+        planned.id = "id";
+        planned.description = "description";
+        return planned;
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.path;
+
+import static java.lang.Long.parseLong;
+import static org.apache.commons.lang3.StringEscapeUtils.unescapeEcmaScript;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Single pass parser for PropertyPath grammar (see PropertyPath.g4). Returns null for invalid input
+ * so that ANTLR parser can be used to report the error.
+ */
+@NotThreadSafe
+final class PathParser {
+
+    static PropertyPath parse(String input) {
+        return new PathParser(input).parsePath();
+    }
+
+    static boolean isIdentifier(String input) {
+        return !input.isEmpty() && new PathParser(input).identifierEnd(0) == input.length();
+    }
+
+    private static final int ERROR = -1;
+
+    private final String input;
+
+    private final int length;
+
+    private PathParser(String input) {
+        this.input = input;
+        this.length = input.length();
+    }
+
+    private PropertyPath parsePath() {
+        PropertyPath path = PropertyPath.ROOT;
+        int pos = 0;
+        while (pos < length) {
+            char ch = input.charAt(pos);
+            switch (ch) {
+                case '.':
+                    if (charAt(pos + 1) == '*') {
+                        path = path.anyProperty();
+                        pos += 2;
+                    } else if (path.isRoot()) {
+                        return null;
+                    } else {
+                        int end = identifierEnd(pos + 1);
+                        if (end == ERROR) {
+                            return null;
+                        }
+                        path = new PropertyPath.Property(path, input.substring(pos + 1, end));
+                        pos = end;
+                    }
+                    break;
+                case '[': {
+                    int next = charAt(pos + 1);
+                    if (next == ']') {
+                        path = path.anyIndex();
+                        pos += 2;
+                    } else {
+                        int end = next == '"' ? keyEnd(pos + 1) : integerEnd(pos + 1);
+                        if (end == ERROR || charAt(end) != ']') {
+                            return null;
+                        }
+                        if (next == '"') {
+                            path = path.key(unescapeEcmaScript(input.substring(pos + 2, end - 1)));
+                        } else {
+                            path = path.index(parseLong(input.substring(pos + 1, end)));
+                        }
+                        pos = end + 1;
+                    }
+                    break;
+                }
+                case '{':
+                    if (charAt(pos + 1) != '}') {
+                        return null;
+                    }
+                    path = path.anyKey();
+                    pos += 2;
+                    break;
+                case '*':
+                    path = path.any();
+                    pos++;
+                    break;
+                default:
+                    if (!path.isRoot()) {
+                        return null;
+                    }
+                    int end = identifierEnd(pos);
+                    if (end == ERROR) {
+                        return null;
+                    }
+                    path = new PropertyPath.Property(path, input.substring(pos, end));
+                    pos = end;
+            }
+        }
+        return path;
+    }
+
+    private int charAt(int pos) {
+        return pos < length ? input.charAt(pos) : -1;
+    }
+
+    /**
+     * Identifier: [a-zA-Z$_] or non-latin1 Java identifier start followed by Java identifier parts.
+     */
+    private int identifierEnd(int pos) {
+        if (pos >= length) {
+            return ERROR;
+        }
+        int codePoint = input.codePointAt(pos);
+        if (!(isAsciiIdentifierStart(codePoint) || (codePoint > 0xA1 && Character.isJavaIdentifierStart(codePoint)))) {
+            return ERROR;
+        }
+        pos += Character.charCount(codePoint);
+        while (pos < length) {
+            codePoint = input.codePointAt(pos);
+            if (!Character.isJavaIdentifierPart(codePoint)) {
+                break;
+            }
+            pos += Character.charCount(codePoint);
+        }
+        return pos;
+    }
+
+    private static boolean isHexDigit(int ch) {
+        return (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+    }
+
+    private static boolean isAsciiIdentifierStart(int ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '$' || ch == '_';
+    }
+
+    /**
+     * Integer: '0' | '-'? [1-9] [0-9]*
+     */
+    private int integerEnd(int pos) {
+        if (charAt(pos) == '0') {
+            return pos + 1;
+        }
+        if (charAt(pos) == '-') {
+            pos++;
+        }
+        int ch = charAt(pos);
+        if (ch < '1' || ch > '9') {
+            return ERROR;
+        }
+        do {
+            pos++;
+            ch = charAt(pos);
+        } while (ch >= '0' && ch <= '9');
+        return pos;
+    }
+
+    /**
+     * Key: '"' (~["\\] | EscapeSequence)* '"'
+     *
+     * @return position after closing quote
+     */
+    private int keyEnd(int pos) {
+        pos++;
+        while (pos < length) {
+            char ch = input.charAt(pos);
+            if (ch == '"') {
+                return pos + 1;
+            } else if (ch == '\\') {
+                pos = escapeEnd(pos + 1);
+                if (pos == ERROR) {
+                    return ERROR;
+                }
+            } else {
+                pos++;
+            }
+        }
+        return ERROR;
+    }
+
+    private int escapeEnd(int pos) {
+        int ch = charAt(pos);
+        switch (ch) {
+            case 'b': case 't': case 'n': case 'f': case 'r':
+            case '"': case '\'': case '\\': case '/':
+                return pos + 1;
+            case 'u':
+                for (int i = 1; i <= 4; i++) {
+                    if (!isHexDigit(charAt(pos + i))) {
+                        return ERROR;
+                    }
+                }
+                return pos + 5;
+            default:
+                // OctalEscape: following octal digits are valid as plain characters also
+                return ch >= '0' && ch <= '7' ? pos + 1 : ERROR;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.path;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.javersion.path.PropertyPath.SubPath;
+import org.javersion.util.Check;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * Set of (wildcard) PropertyPath patterns compiled into a deterministic automaton over NodeIds.
+ * A concrete NodeId matches a pattern node as in Schema: either exactly or through its
+ * {@link NodeId#fallbackId() fallbacks}, e.g. <code>list[1].name</code> matches
+ * <code>list[].name</code>, <code>list[].*</code> and <code>list*.name</code>.
+ * <p>
+ * Testing a path is a single walk of its nodes without backtracking.
+ */
+@Immutable
+public final class PathPattern implements Predicate<PropertyPath> {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Pattern matching any of the given patterns exactly.
+     */
+    public static PathPattern compile(Iterable<PropertyPath> patterns) {
+        Builder builder = builder();
+        for (PropertyPath pattern : patterns) {
+            builder.match(pattern);
+        }
+        return builder.build();
+    }
+
+    public static PathPattern compile(PropertyPath... patterns) {
+        return compile(ImmutableSet.copyOf(patterns));
+    }
+
+    private final State start;
+
+    private PathPattern(State start) {
+        this.start = start;
+    }
+
+    @Override
+    public boolean apply(PropertyPath path) {
+        return matches(path);
+    }
+
+    public boolean matches(PropertyPath path) {
+        Check.notNull(path, "path");
+        return stateOf(path).accept;
+    }
+
+    /**
+     * @return true if some descendant of the path could match
+     */
+    public boolean matchesDescendants(PropertyPath path) {
+        Check.notNull(path, "path");
+        return stateOf(path) != State.NONE;
+    }
+
+    /**
+     * Entries of <code>properties</code> whose key matches, in iteration order of properties.
+     */
+    public <V> Map<PropertyPath, V> filter(Map<PropertyPath, V> properties) {
+        Map<PropertyPath, V> result = new LinkedHashMap<>();
+        for (Map.Entry<PropertyPath, V> entry : properties.entrySet()) {
+            if (matches(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private State stateOf(PropertyPath path) {
+        if (path.isRoot()) {
+            return start;
+        }
+        SubPath subPath = (SubPath) path;
+        State parent = stateOf(subPath.parent);
+        return parent == State.NONE ? parent : parent.next(subPath.nodeId);
+    }
+
+    @NotThreadSafe
+    public static final class Builder {
+
+        private final PatternNode root = new PatternNode();
+
+        private Builder() {}
+
+        /**
+         * Match paths matching the pattern.
+         */
+        public Builder match(PropertyPath pattern) {
+            getOrCreate(pattern).accept = true;
+            return this;
+        }
+
+        /**
+         * Match paths matching the pattern and all their descendants.
+         */
+        public Builder matchSubtree(PropertyPath pattern) {
+            PatternNode node = getOrCreate(pattern);
+            node.accept = true;
+            node.subtree = true;
+            return this;
+        }
+
+        private PatternNode getOrCreate(PropertyPath pattern) {
+            Check.notNull(pattern, "pattern");
+            PatternNode node = root;
+            for (SubPath subPath : pattern.asList()) {
+                node = node.children.computeIfAbsent(subPath.nodeId, nodeId -> new PatternNode());
+            }
+            return node;
+        }
+
+        public PathPattern build() {
+            return new PathPattern(new Compiler().compile(root));
+        }
+    }
+
+    private static final class PatternNode {
+
+        final Map<NodeId, PatternNode> children = new HashMap<>();
+
+        boolean accept;
+
+        boolean subtree;
+    }
+
+    /**
+     * Subset construction of a deterministic automaton from the pattern trie.
+     */
+    private static final class Compiler {
+
+        private final Map<Set<PatternNode>, State> states = new HashMap<>();
+
+        private final Deque<Map.Entry<Set<PatternNode>, State>> queue = new ArrayDeque<>();
+
+        State compile(PatternNode root) {
+            Set<PatternNode> rootSet = identitySet();
+            rootSet.add(root);
+            State start = stateOf(rootSet);
+            Map.Entry<Set<PatternNode>, State> next;
+            while ((next = queue.poll()) != null) {
+                Set<PatternNode> nodes = next.getKey();
+                ImmutableMap.Builder<NodeId, State> transitions = ImmutableMap.builder();
+                for (NodeId nodeId : explicitNodeIds(nodes)) {
+                    transitions.put(nodeId, stateOf(targets(nodes, nodeId)));
+                }
+                next.getValue().transitions = transitions.build();
+            }
+            return start;
+        }
+
+        private Set<NodeId> explicitNodeIds(Set<PatternNode> nodes) {
+            Set<NodeId> nodeIds = new HashSet<>();
+            for (PatternNode node : nodes) {
+                nodeIds.addAll(node.children.keySet());
+            }
+            return nodeIds;
+        }
+
+        /**
+         * Pattern nodes reached from nodes by nodeId or its fallbacks.
+         */
+        private Set<PatternNode> targets(Set<PatternNode> nodes, NodeId nodeId) {
+            Set<PatternNode> targets = identitySet();
+            for (NodeId id = nodeId; id != null; id = id.fallbackId()) {
+                for (PatternNode node : nodes) {
+                    PatternNode child = node.children.get(id);
+                    if (child != null) {
+                        targets.add(child);
+                    }
+                }
+            }
+            return targets;
+        }
+
+        private static Set<PatternNode> identitySet() {
+            return Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+
+        /**
+         * @param nodes identity based set of pattern nodes - used as key of the state
+         */
+        private State stateOf(Set<PatternNode> nodes) {
+            if (nodes.isEmpty()) {
+                return State.NONE;
+            }
+            boolean accept = false;
+            for (PatternNode node : nodes) {
+                if (node.subtree) {
+                    return State.ALL;
+                }
+                accept |= node.accept;
+            }
+            State state = states.get(nodes);
+            if (state == null) {
+                state = new State(accept);
+                states.put(nodes, state);
+                queue.add(Maps.immutableEntry(nodes, state));
+            }
+            return state;
+        }
+    }
+
+    private static final class State {
+
+        static final State NONE = new State(false);
+
+        static final State ALL = new State(true);
+
+        final boolean accept;
+
+        Map<NodeId, State> transitions = ImmutableMap.of();
+
+        State(boolean accept) {
+            this.accept = accept;
+        }
+
+        State next(NodeId nodeId) {
+            if (this == ALL) {
+                return ALL;
+            }
+            for (NodeId id = nodeId; id != null; id = id.fallbackId()) {
+                State state = transitions.get(id);
+                if (state != null) {
+                    return state;
+                }
+            }
+            return NONE;
+        }
+    }
+}
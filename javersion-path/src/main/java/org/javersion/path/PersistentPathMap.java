@@ -0,0 +1,303 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.path;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.javersion.path.PropertyPath.SubPath;
+import org.javersion.util.Check;
+import org.javersion.util.PersistentHashMap;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Maps;
+
+/**
+ * Persistent trie of PropertyPath segments. {@link #subMap(PropertyPath)} is O(depth of prefix)
+ * and iterating it is proportional to the size of the subtree instead of the whole map. Iteration
+ * order is unspecified, except that a parent is always iterated before its children.
+ * <p>
+ * Null values are supported.
+ */
+@Immutable
+public final class PersistentPathMap<V> implements Iterable<Map.Entry<PropertyPath, V>> {
+
+    @SuppressWarnings("rawtypes")
+    private static final Node EMPTY_NODE = new Node<>(null, false, PersistentHashMap.empty(), 0);
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final PersistentPathMap EMPTY = new PersistentPathMap(PropertyPath.ROOT, EMPTY_NODE);
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentPathMap<V> empty() {
+        return EMPTY;
+    }
+
+    public static <V> PersistentPathMap<V> copyOf(Map<PropertyPath, ? extends V> map) {
+        return PersistentPathMap.<V>empty().assocAll(map);
+    }
+
+    /**
+     * Path of the root node. Keys of this map start with prefix.
+     */
+    public final PropertyPath prefix;
+
+    private final Node<V> root;
+
+    private PersistentPathMap(PropertyPath prefix, Node<V> root) {
+        this.prefix = prefix;
+        this.root = root;
+    }
+
+    public V get(PropertyPath path) {
+        Node<V> node = find(path);
+        return node != null ? node.value : null;
+    }
+
+    public boolean containsKey(PropertyPath path) {
+        Node<V> node = find(path);
+        return node != null && node.hasValue;
+    }
+
+    public int size() {
+        return root.size;
+    }
+
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    public PersistentPathMap<V> assoc(PropertyPath path, V value) {
+        List<SubPath> nodes = relativeNodes(path);
+        return doReturn(root.assoc(nodes, prefix.getDepth(), value));
+    }
+
+    public PersistentPathMap<V> assocAll(Map<PropertyPath, ? extends V> map) {
+        Node<V> newRoot = root;
+        for (Map.Entry<PropertyPath, ? extends V> entry : map.entrySet()) {
+            newRoot = newRoot.assoc(relativeNodes(entry.getKey()), prefix.getDepth(), entry.getValue());
+        }
+        return doReturn(newRoot);
+    }
+
+    public PersistentPathMap<V> dissoc(PropertyPath path) {
+        if (!path.startsWith(prefix)) {
+            return this;
+        }
+        Node<V> newRoot = root.dissoc(path.asList(), prefix.getDepth());
+        return doReturn(newRoot != null ? newRoot : emptyNode());
+    }
+
+    /**
+     * Entries under (and including) <code>prefix</code>.
+     */
+    public PersistentPathMap<V> subMap(PropertyPath prefix) {
+        Check.notNull(prefix, "prefix");
+        if (prefix.getDepth() <= this.prefix.getDepth()) {
+            return prefix.startsWith(this.prefix) || this.prefix.startsWith(prefix) ? this : empty(prefix);
+        }
+        Node<V> node = find(prefix);
+        return node != null ? new PersistentPathMap<>(prefix, node) : empty(prefix);
+    }
+
+    @Override
+    public Iterator<Map.Entry<PropertyPath, V>> iterator() {
+        return new EntryIterator<>(prefix, root);
+    }
+
+    /**
+     * @return an immutable Map view of this trie
+     */
+    public Map<PropertyPath, V> asMap() {
+        return new AbstractMap<PropertyPath, V>() {
+            @Override
+            public Set<Entry<PropertyPath, V>> entrySet() {
+                return new AbstractSet<Entry<PropertyPath, V>>() {
+                    @Override
+                    public Iterator<Entry<PropertyPath, V>> iterator() {
+                        return PersistentPathMap.this.iterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return PersistentPathMap.this.size();
+                    }
+                };
+            }
+
+            @Override
+            public V get(Object key) {
+                return key instanceof PropertyPath ? PersistentPathMap.this.get((PropertyPath) key) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return key instanceof PropertyPath && PersistentPathMap.this.containsKey((PropertyPath) key);
+            }
+
+            @Override
+            public int size() {
+                return PersistentPathMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return StreamSupport.stream(spliterator(), false).map(Objects::toString).collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    private PersistentPathMap<V> empty(PropertyPath prefix) {
+        return new PersistentPathMap<>(prefix, emptyNode());
+    }
+
+    private PersistentPathMap<V> doReturn(Node<V> newRoot) {
+        return newRoot == root ? this : new PersistentPathMap<>(prefix, newRoot);
+    }
+
+    private List<SubPath> relativeNodes(PropertyPath path) {
+        Check.notNull(path, "path");
+        if (!path.startsWith(prefix)) {
+            throw new IllegalArgumentException(path + " is not under " + prefix);
+        }
+        return path.asList();
+    }
+
+    private Node<V> find(PropertyPath path) {
+        if (path.getDepth() < prefix.getDepth() || !path.startsWith(prefix)) {
+            return null;
+        }
+        Node<V> node = root;
+        List<SubPath> nodes = path.asList();
+        for (int i = prefix.getDepth(); i < nodes.size() && node != null; i++) {
+            node = node.children.get(nodes.get(i).nodeId);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V> emptyNode() {
+        return EMPTY_NODE;
+    }
+
+    private static final class Node<V> {
+
+        final V value;
+
+        final boolean hasValue;
+
+        final PersistentHashMap<NodeId, Node<V>> children;
+
+        /**
+         * Number of values in this subtree.
+         */
+        final int size;
+
+        Node(V value, boolean hasValue, PersistentHashMap<NodeId, Node<V>> children, int size) {
+            this.value = value;
+            this.hasValue = hasValue;
+            this.children = children;
+            this.size = size;
+        }
+
+        Node<V> assoc(List<SubPath> nodes, int index, V newValue) {
+            if (index == nodes.size()) {
+                if (hasValue && value == newValue) {
+                    return this;
+                }
+                return new Node<>(newValue, true, children, hasValue ? size : size + 1);
+            }
+            NodeId nodeId = nodes.get(index).nodeId;
+            Node<V> child = children.get(nodeId);
+            if (child == null) {
+                child = emptyNode();
+            }
+            Node<V> newChild = child.assoc(nodes, index + 1, newValue);
+            if (newChild == child) {
+                return this;
+            }
+            return new Node<>(value, hasValue, children.assoc(nodeId, newChild), size - child.size + newChild.size);
+        }
+
+        /**
+         * @return null if resulting node is empty
+         */
+        Node<V> dissoc(List<SubPath> nodes, int index) {
+            if (index == nodes.size()) {
+                if (!hasValue) {
+                    return this;
+                }
+                return children.isEmpty() ? null : new Node<>(null, false, children, size - 1);
+            }
+            NodeId nodeId = nodes.get(index).nodeId;
+            Node<V> child = children.get(nodeId);
+            if (child == null) {
+                return this;
+            }
+            Node<V> newChild = child.dissoc(nodes, index + 1);
+            if (newChild == child) {
+                return this;
+            }
+            PersistentHashMap<NodeId, Node<V>> newChildren = newChild == null
+                    ? children.dissoc(nodeId)
+                    : children.assoc(nodeId, newChild);
+            if (!hasValue && newChildren.isEmpty()) {
+                return null;
+            }
+            return new Node<>(value, hasValue, newChildren, size - 1);
+        }
+    }
+
+    private static final class EntryIterator<V> extends AbstractIterator<Map.Entry<PropertyPath, V>> {
+
+        private final Deque<Map.Entry<PropertyPath, Node<V>>> stack = new ArrayDeque<>();
+
+        EntryIterator(PropertyPath prefix, Node<V> root) {
+            if (root.size > 0) {
+                stack.push(Maps.immutableEntry(prefix, root));
+            }
+        }
+
+        @Override
+        protected Map.Entry<PropertyPath, V> computeNext() {
+            Map.Entry<PropertyPath, Node<V>> next;
+            while ((next = stack.poll()) != null) {
+                PropertyPath path = next.getKey();
+                Node<V> node = next.getValue();
+                for (Map.Entry<NodeId, Node<V>> child : node.children) {
+                    if (child.getValue().size > 0) {
+                        stack.push(Maps.immutableEntry(child.getKey().toPath(path), child.getValue()));
+                    }
+                }
+                if (node.hasValue) {
+                    return Maps.immutableEntry(path, node.value);
+                }
+            }
+            return endOfData();
+        }
+    }
+}
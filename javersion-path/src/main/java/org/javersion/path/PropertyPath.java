@@ -17,6 +17,8 @@ package org.javersion.path;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.misc.NotNull;
 import org.antlr.v4.runtime.tree.RuleNode;
@@ -27,6 +29,8 @@ import org.javersion.path.parser.PropertyPathBaseVisitor;
 import org.javersion.path.parser.PropertyPathLexer;
 import org.javersion.path.parser.PropertyPathParser;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -68,11 +72,19 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
 
     public static final Root ROOT = new Root();
 
+    private static final Interner<SubPath> INTERNER = Interners.newWeakInterner();
+
     public static PropertyPath parse(String path) {
         checkNotNull(path);
         if (path.length() == 0) {
             return ROOT;
         }
+        PropertyPath result = PathParser.parse(path);
+        // ANTLR parser is used for error reporting
+        return result != null ? result : parseWithAntlr(path);
+    }
+
+    static PropertyPath parseWithAntlr(String path) {
         return newParser(path, false).parsePath().accept(new PropertyPathBaseVisitor<PropertyPath>() {
 
             private PropertyPath parent = ROOT;
@@ -124,9 +136,17 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
 
     private transient List<SubPath> fullPath;
 
-    PropertyPath() {}
+    private final int depth;
+
+    PropertyPath(int depth) {
+        this.depth = depth;
+    }
 
     public Property property(String name) {
+        checkNotNull(name);
+        if (PathParser.isIdentifier(name)) {
+            return new Property(this, name);
+        }
         return newParser(name, false).parseProperty().accept(new PropertyPathBaseVisitor<Property>() {
 
             @Override
@@ -178,6 +198,9 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
 
     public final SubPath propertyOrKey(String string) {
         checkNotNull(string);
+        if (PathParser.isIdentifier(string)) {
+            return new Property(this, string);
+        }
         try {
             return newParser(string, true).parseProperty().accept(new PropertyPathBaseVisitor<SubPath>() {
 
@@ -213,17 +236,52 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
         return false;
     }
 
+    /**
+     * @return binary encoding of this path, see {@link PropertyPathCodec#DEFAULT}
+     */
+    public byte[] toBytes() {
+        return PropertyPathCodec.DEFAULT.encode(this);
+    }
+
+    /**
+     * @return number of nodes in this path, 0 for ROOT
+     */
+    public final int getDepth() {
+        return depth;
+    }
+
     public boolean startsWith(PropertyPath other) {
-        if (other.isRoot()) {
-            return true;
-        } else if (this.isRoot()) {
-            return false;
-        } else {
-            List<SubPath> otherPath = other.asList();
-            List<SubPath> thisPath = asList();
-            int otherSize = otherPath.size();
-            return thisPath.size() >= otherSize && thisPath.get(otherSize - 1).equals(otherPath.get(otherSize - 1));
+        return other.depth <= this.depth && ancestor(other.depth).equals(other);
+    }
+
+    /**
+     * @return the longest path that both this and <code>other</code> start with
+     */
+    public PropertyPath commonPrefix(PropertyPath other) {
+        int depth = Math.min(this.depth, other.depth);
+        PropertyPath a = this.ancestor(depth);
+        PropertyPath b = other.ancestor(depth);
+        PropertyPath prefix = a;
+        while (a != b) {
+            SubPath sa = (SubPath) a, sb = (SubPath) b;
+            if (!sa.nodeId.equals(sb.nodeId)) {
+                prefix = sa.parent;
+            }
+            a = sa.parent;
+            b = sb.parent;
         }
+        return prefix;
+    }
+
+    /**
+     * @return ancestor (or self) at given depth
+     */
+    final PropertyPath ancestor(int depth) {
+        PropertyPath path = this;
+        while (path.depth > depth) {
+            path = ((SubPath) path).parent;
+        }
+        return path;
     }
 
     public PropertyPath toSchemaPath() {
@@ -236,14 +294,21 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
 
     @Override
     public int compareTo(PropertyPath other) {
-        List<SubPath> myPath = getFullPath();
-        List<SubPath> otherPath = other.getFullPath();
-        int len = Math.min(myPath.size(), otherPath.size());
+        int depth = Math.min(this.depth, other.depth);
+        PropertyPath a = this.ancestor(depth);
+        PropertyPath b = other.ancestor(depth);
+        // Topmost difference decides
         int cmp = 0;
-        for (int i = 0; i < len && cmp == 0; i++) {
-            cmp = myPath.get(i).getNodeId().compareTo(otherPath.get(i).getNodeId());
+        while (a != b) {
+            SubPath sa = (SubPath) a, sb = (SubPath) b;
+            int nodeCmp = sa.nodeId.compareTo(sb.nodeId);
+            if (nodeCmp != 0) {
+                cmp = nodeCmp;
+            }
+            a = sa.parent;
+            b = sb.parent;
         }
-        return cmp == 0 ? Integer.compare(myPath.size(), otherPath.size()) : cmp;
+        return cmp == 0 ? Integer.compare(this.depth, other.depth) : cmp;
     }
 
     public abstract String toString();
@@ -254,6 +319,11 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
 
     public abstract NodeId getNodeId();
 
+    /**
+     * Canonical instance of this path from a weak interning pool. Parents of an interned path are
+     * interned also, so equality of interned paths reduces to identity.
+     */
+    public abstract PropertyPath intern();
 
     abstract List<SubPath> getFullPath();
 
@@ -264,7 +334,9 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
 
         private static final List<SubPath> FULL_PATH = ImmutableList.of();
 
-        private Root() {}
+        private Root() {
+            super(0);
+        }
 
         List<SubPath> getFullPath() {
             return FULL_PATH;
@@ -294,6 +366,11 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
             return ROOT_ID;
         }
 
+        @Override
+        public Root intern() {
+            return this;
+        }
+
         @Override
         PropertyPath withParent(PropertyPath newParent) {
             return newParent;
@@ -309,18 +386,28 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
         // cached hash
         private int hash;
 
+        // true for canonical instance. Benign race: unset flag only causes a redundant lookup
+        private boolean interned;
+
         SubPath(PropertyPath parent, NodeId nodeId) {
-            this.parent = checkNotNull(parent, "parent");
+            super(checkNotNull(parent, "parent").depth + 1);
+            this.parent = parent;
             this.nodeId = checkNotNull(nodeId, "nodeId");
             this.hash = 31 * parent.hashCode() + nodeId.hashCode();
         }
 
+        /**
+         * Built directly from ancestors so that only the requested path caches its list.
+         */
         List<SubPath> getFullPath() {
-            List<SubPath> parentPath = parent.getFullPath();
-            ImmutableList.Builder<SubPath> pathBuilder = ImmutableList.builder();
-            pathBuilder.addAll(parentPath);
-            pathBuilder.add(this);
-            return pathBuilder.build();
+            SubPath[] path = new SubPath[getDepth()];
+            PropertyPath current = this;
+            for (int i = path.length - 1; i >= 0; i--) {
+                SubPath subPath = (SubPath) current;
+                path[i] = subPath;
+                current = subPath.parent;
+            }
+            return Collections.unmodifiableList(Arrays.asList(path));
         }
 
         @Override
@@ -329,6 +416,9 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
                 return true;
             } else if (obj instanceof SubPath) {
                 SubPath other = (SubPath) obj;
+                if (this.hash != other.hash || (this.interned && other.interned)) {
+                    return false;
+                }
                 return this.nodeId.equals(other.nodeId) && parent.equals(other.parent);
             } else {
                 return false;
@@ -345,6 +435,18 @@ public abstract class PropertyPath implements Comparable<PropertyPath> {
             return nodeId;
         }
 
+        @Override
+        public final SubPath intern() {
+            if (interned) {
+                return this;
+            }
+            PropertyPath internedParent = parent.intern();
+            SubPath candidate = internedParent == parent ? this : (SubPath) nodeId.toPath(internedParent);
+            SubPath result = INTERNER.intern(candidate);
+            result.interned = true;
+            return result;
+        }
+
         public final String toString() {
             StringBuilder sb = new StringBuilder();
             sb.append(parent.toString());
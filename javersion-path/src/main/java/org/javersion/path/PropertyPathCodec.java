@@ -0,0 +1,279 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.javersion.path.NodeId.IndexId;
+import org.javersion.path.NodeId.KeyId;
+import org.javersion.path.NodeId.PropertyId;
+import org.javersion.path.PropertyPath.SubPath;
+import org.javersion.util.Check;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Binary encoding of PropertyPath as a sequence of varint tagged NodeIds. ROOT is encoded as an
+ * empty array.
+ * <p>
+ * Each node starts with a varint header whose lowest 3 bits is the type of the node:
+ * <pre>
+ * PROPERTY          header = utf8 length &lt;&lt; 3 | 0, followed by utf8 bytes
+ * PROPERTY_ORDINAL  header = ordinal &lt;&lt; 3 | 1
+ * INDEX             header = 2, followed by zigzag varint of index
+ * KEY               header = utf8 length &lt;&lt; 3 | 3, followed by utf8 bytes
+ * ANY               header = 4
+ * ANY_INDEX         header = 5
+ * ANY_KEY           header = 6
+ * ANY_PROPERTY      header = 7
+ * </pre>
+ * Property ordinals are relative to the list of property names given to the codec (e.g.
+ * {@link #forSchema(Schema)}) - the same codec is required for decoding. {@link #DEFAULT} codec
+ * doesn't use ordinals. Paths are encoded on demand, nothing is cached.
+ */
+@Immutable
+public final class PropertyPathCodec {
+
+    public static final PropertyPathCodec DEFAULT = new PropertyPathCodec(ImmutableList.of());
+
+    private static final int PROPERTY = 0;
+    private static final int PROPERTY_ORDINAL = 1;
+    private static final int INDEX = 2;
+    private static final int KEY = 3;
+    private static final int ANY = 4;
+    private static final int ANY_INDEX = 5;
+    private static final int ANY_KEY = 6;
+    private static final int ANY_PROPERTY = 7;
+
+    private static final int TYPE_BITS = 3;
+    private static final int TYPE_MASK = 7;
+
+    /**
+     * Codec using ordinals for all property names found in the schema.
+     */
+    public static PropertyPathCodec forSchema(Schema<?> schema) {
+        SortedSet<String> properties = new TreeSet<>();
+        collectProperties(schema, properties, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return new PropertyPathCodec(properties);
+    }
+
+    private static void collectProperties(Schema<?> schema, Set<String> properties, Set<Schema<?>> visited) {
+        if (visited.add(schema)) {
+            for (Map.Entry<NodeId, ? extends Schema<?>> entry : schema.getChildren().entrySet()) {
+                NodeId nodeId = entry.getKey();
+                if (nodeId instanceof PropertyId) {
+                    properties.add(nodeId.getKey());
+                }
+                collectProperties(entry.getValue(), properties, visited);
+            }
+        }
+    }
+
+    private final List<PropertyId> properties;
+
+    private final Map<PropertyId, Integer> ordinals;
+
+    public PropertyPathCodec(Iterable<String> properties) {
+        ImmutableList.Builder<PropertyId> list = ImmutableList.builder();
+        ImmutableMap.Builder<PropertyId, Integer> ordinals = ImmutableMap.builder();
+        int ordinal = 0;
+        for (String property : properties) {
+            PropertyId id = NodeId.property(property);
+            list.add(id);
+            ordinals.put(id, ordinal++);
+        }
+        this.properties = list.build();
+        this.ordinals = ordinals.build();
+    }
+
+    public byte[] encode(PropertyPath path) {
+        Check.notNull(path, "path");
+        Output out = new Output(16 * path.getDepth());
+        for (SubPath node : path.asList()) {
+            writeNode(out, node.nodeId);
+        }
+        return out.toByteArray();
+    }
+
+    public PropertyPath decode(byte[] bytes) {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    public PropertyPath decode(byte[] bytes, int offset, int length) {
+        Check.notNull(bytes, "bytes");
+        Input in = new Input(bytes, offset, offset + length);
+        PropertyPath path = PropertyPath.ROOT;
+        while (in.hasMore()) {
+            path = readNode(in).toPath(path);
+        }
+        return path;
+    }
+
+    private void writeNode(Output out, NodeId nodeId) {
+        if (nodeId instanceof PropertyId) {
+            Integer ordinal = ordinals.get(nodeId);
+            if (ordinal != null) {
+                out.writeVarLong(((long) ordinal << TYPE_BITS) | PROPERTY_ORDINAL);
+            } else {
+                writeString(out, PROPERTY, nodeId.getKey());
+            }
+        } else if (nodeId instanceof IndexId) {
+            out.writeVarLong(INDEX);
+            long index = nodeId.getIndex();
+            out.writeVarLong((index << 1) ^ (index >> 63));
+        } else if (nodeId instanceof KeyId) {
+            writeString(out, KEY, nodeId.getKey());
+        } else if (nodeId == NodeId.ANY) {
+            out.writeVarLong(ANY);
+        } else if (nodeId == NodeId.ANY_INDEX) {
+            out.writeVarLong(ANY_INDEX);
+        } else if (nodeId == NodeId.ANY_KEY) {
+            out.writeVarLong(ANY_KEY);
+        } else if (nodeId == NodeId.ANY_PROPERTY) {
+            out.writeVarLong(ANY_PROPERTY);
+        } else {
+            throw new IllegalArgumentException("Unsupported NodeId: " + nodeId);
+        }
+    }
+
+    private static void writeString(Output out, int type, String str) {
+        byte[] bytes = str.getBytes(UTF_8);
+        out.writeVarLong(((long) bytes.length << TYPE_BITS) | type);
+        out.write(bytes);
+    }
+
+    private NodeId readNode(Input in) {
+        long header = in.readVarLong();
+        int type = (int) (header & TYPE_MASK);
+        long payload = header >>> TYPE_BITS;
+        switch (type) {
+            case PROPERTY:
+                return NodeId.property(in.readString(payload));
+            case PROPERTY_ORDINAL:
+                if (payload >= properties.size()) {
+                    throw new IllegalArgumentException("Unknown property ordinal: " + payload);
+                }
+                return properties.get((int) payload);
+            case INDEX:
+                long zigzag = in.readVarLong();
+                return NodeId.index((zigzag >>> 1) ^ -(zigzag & 1));
+            case KEY:
+                return NodeId.key(in.readString(payload));
+            case ANY:
+                return NodeId.ANY;
+            case ANY_INDEX:
+                return NodeId.ANY_INDEX;
+            case ANY_KEY:
+                return NodeId.ANY_KEY;
+            default: // ANY_PROPERTY
+                return NodeId.ANY_PROPERTY;
+        }
+    }
+
+    private static final class Output {
+
+        private byte[] buffer;
+
+        private int size;
+
+        Output(int capacity) {
+            buffer = new byte[Math.max(capacity, 8)];
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void write(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+
+        byte[] toByteArray() {
+            return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+
+        private final int end;
+
+        private int pos;
+
+        Input(byte[] bytes, int offset, int end) {
+            if (offset < 0 || end > bytes.length || offset > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            this.bytes = bytes;
+            this.pos = offset;
+            this.end = end;
+        }
+
+        boolean hasMore() {
+            return pos < end;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= end) {
+                    throw new IllegalArgumentException("Truncated PropertyPath encoding");
+                }
+                byte b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in PropertyPath encoding");
+        }
+
+        String readString(long length) {
+            if (length > end - pos) {
+                throw new IllegalArgumentException("Truncated PropertyPath encoding");
+            }
+            String str = new String(bytes, pos, (int) length, UTF_8);
+            pos += (int) length;
+            return str;
+        }
+    }
+}
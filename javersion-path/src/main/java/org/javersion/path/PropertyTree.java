@@ -15,44 +15,105 @@
  */
 package org.javersion.path;
 
-import com.google.common.collect.Maps;
-
 import java.util.*;
 
-import static java.util.Collections.unmodifiableCollection;
-import static java.util.Collections.unmodifiableSortedMap;
+import org.javersion.path.PropertyPath.SubPath;
+
+import com.google.common.collect.Maps;
 
+/**
+ * Immutable tree of PropertyPaths. Children are stored in an array sorted by NodeId.
+ */
 public class PropertyTree {
 
+    private static final PropertyTree[] NO_CHILDREN = new PropertyTree[0];
+
     public static PropertyTree build(PropertyPath...paths) {
         return build(Arrays.asList(paths));
     }
 
+    /**
+     * Builds the tree in a single pass over paths in sorted order. Paths are sorted first unless
+     * they already are in PropertyPath's natural order.
+     */
     public static PropertyTree build(Collection<PropertyPath> paths) {
-        Map<PropertyPath, PropertyTree> nodes = Maps.newHashMapWithExpectedSize(paths.size());
-        for (PropertyPath path : paths) {
-            PropertyTree parentTree = getOrCreate(PropertyPath.ROOT, nodes);
-            for (PropertyPath subPath : path.asList()) {
-                PropertyTree childTree = getOrCreate(subPath, nodes);
-                parentTree.children.put(subPath.getNodeId(), childTree);
-                parentTree = childTree;
+        if (paths.isEmpty()) {
+            return null;
+        }
+        PropertyPath[] sorted = paths.toArray(new PropertyPath[paths.size()]);
+        if (!isSorted(sorted)) {
+            Arrays.sort(sorted);
+        }
+
+        // Open nodes of the current path by depth with the children collected so far
+        List<PropertyTree> open = new ArrayList<>();
+        List<List<PropertyTree>> openChildren = new ArrayList<>();
+        PropertyPath[] chain = new PropertyPath[8];
+
+        PropertyTree root = new PropertyTree(PropertyPath.ROOT);
+        open.add(root);
+        openChildren.add(new ArrayList<>());
+        PropertyPath previous = PropertyPath.ROOT;
+
+        for (PropertyPath path : sorted) {
+            int commonDepth = previous.commonPrefix(path).getDepth();
+            close(open, openChildren, commonDepth);
+
+            int depth = path.getDepth();
+            if (chain.length < depth) {
+                chain = new PropertyPath[Math.max(depth, 2 * chain.length)];
             }
+            PropertyPath node = path;
+            for (int i = depth - 1; i >= commonDepth; i--) {
+                chain[i] = node;
+                node = ((SubPath) node).parent;
+            }
+            for (int i = commonDepth; i < depth; i++) {
+                PropertyTree child = new PropertyTree(chain[i]);
+                openChildren.get(i).add(child);
+                open.add(child);
+                if (openChildren.size() <= i + 1) {
+                    openChildren.add(new ArrayList<>());
+                }
+                chain[i] = null;
+            }
+            previous = path;
         }
-        return nodes.get(PropertyPath.ROOT);
+        close(open, openChildren, 0);
+        root.children = toArray(openChildren.get(0));
+        return root;
     }
 
-    private static PropertyTree getOrCreate(PropertyPath path, Map<PropertyPath, PropertyTree> nodes) {
-        PropertyTree childTree = nodes.get(path);
-        if (childTree == null) {
-            childTree = new PropertyTree(path);
-            nodes.put(path, childTree);
+    private static boolean isSorted(PropertyPath[] paths) {
+        for (int i = 1; i < paths.length; i++) {
+            if (paths[i - 1].compareTo(paths[i]) > 0) {
+                return false;
+            }
         }
-        return childTree;
+        return true;
+    }
+
+    /**
+     * Close open nodes deeper than depth.
+     */
+    private static void close(List<PropertyTree> open, List<List<PropertyTree>> openChildren, int depth) {
+        for (int i = open.size() - 1; i > depth; i--) {
+            open.remove(i).children = toArray(openChildren.get(i));
+        }
+    }
+
+    private static PropertyTree[] toArray(List<PropertyTree> children) {
+        if (children.isEmpty()) {
+            return NO_CHILDREN;
+        }
+        PropertyTree[] array = children.toArray(new PropertyTree[children.size()]);
+        children.clear();
+        return array;
     }
 
     public final PropertyPath path;
 
-    private SortedMap<NodeId, PropertyTree> children = new TreeMap<>();
+    private PropertyTree[] children = NO_CHILDREN;
 
     private PropertyTree(PropertyPath path) {
         this.path = path;
@@ -63,19 +124,20 @@ public class PropertyTree {
     }
 
     public Collection<PropertyTree> getChildren() {
-        return unmodifiableCollection(children.values());
+        return Collections.unmodifiableList(Arrays.asList(children));
     }
 
     public SortedMap<NodeId, PropertyTree> getChildrenMap() {
-        return unmodifiableSortedMap(children);
+        return new ChildrenMap(children, 0, children.length);
     }
 
     public PropertyTree get(NodeId childNode) {
-        return children.get(childNode);
+        int index = indexOf(children, 0, children.length, childNode);
+        return index >= 0 ? children[index] : null;
     }
 
     public boolean hasChildren() {
-        return !children.isEmpty();
+        return children.length > 0;
     }
 
     public PropertyTree get(PropertyPath path) {
@@ -92,4 +154,139 @@ public class PropertyTree {
     public String toString() {
         return path.toString();
     }
+
+    /**
+     * Binary search of nodeId from children[from, to).
+     *
+     * @return index of nodeId or (-(insertion point) - 1)
+     */
+    private static int indexOf(PropertyTree[] children, int from, int to, NodeId nodeId) {
+        int low = from, high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = children[mid].getNodeId().compareTo(nodeId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int insertionPoint(PropertyTree[] children, int from, int to, NodeId nodeId) {
+        int index = indexOf(children, from, to, nodeId);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    /**
+     * Read-only SortedMap view of children[from, to).
+     */
+    private static final class ChildrenMap extends AbstractMap<NodeId, PropertyTree> implements SortedMap<NodeId, PropertyTree> {
+
+        private final PropertyTree[] children;
+
+        private final int from;
+
+        private final int to;
+
+        ChildrenMap(PropertyTree[] children, int from, int to) {
+            this.children = children;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public PropertyTree get(Object key) {
+            if (key instanceof NodeId) {
+                int index = indexOf(children, from, to, (NodeId) key);
+                return index >= 0 ? children[index] : null;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public Comparator<? super NodeId> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedMap<NodeId, PropertyTree> subMap(NodeId fromKey, NodeId toKey) {
+            int start = insertionPoint(children, from, to, fromKey);
+            int end = insertionPoint(children, from, to, toKey);
+            if (start > end) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            return new ChildrenMap(children, start, end);
+        }
+
+        @Override
+        public SortedMap<NodeId, PropertyTree> headMap(NodeId toKey) {
+            return new ChildrenMap(children, from, insertionPoint(children, from, to, toKey));
+        }
+
+        @Override
+        public SortedMap<NodeId, PropertyTree> tailMap(NodeId fromKey) {
+            return new ChildrenMap(children, insertionPoint(children, from, to, fromKey), to);
+        }
+
+        @Override
+        public NodeId firstKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return children[from].getNodeId();
+        }
+
+        @Override
+        public NodeId lastKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return children[to - 1].getNodeId();
+        }
+
+        @Override
+        public Set<Entry<NodeId, PropertyTree>> entrySet() {
+            return new AbstractSet<Entry<NodeId, PropertyTree>>() {
+                @Override
+                public Iterator<Entry<NodeId, PropertyTree>> iterator() {
+                    return new Iterator<Entry<NodeId, PropertyTree>>() {
+                        private int index = from;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < to;
+                        }
+
+                        @Override
+                        public Entry<NodeId, PropertyTree> next() {
+                            if (index >= to) {
+                                throw new NoSuchElementException();
+                            }
+                            PropertyTree child = children[index++];
+                            return Maps.immutableEntry(child.getNodeId(), child);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return to - from;
+                }
+            };
+        }
+    }
 }
@@ -18,6 +18,9 @@ package org.javersion.path;
 import java.util.IdentityHashMap;
 import java.util.Map;
 
+import org.javersion.path.NodeId.IndexId;
+import org.javersion.path.NodeId.KeyId;
+import org.javersion.path.NodeId.PropertyId;
 import org.javersion.path.PropertyPath.SubPath;
 import org.javersion.util.Check;
 
@@ -30,6 +33,13 @@ public class Schema<T> extends SchemaBase<Schema<T>> {
 
     private final Map<NodeId, Schema<T>> children;
 
+    // Precomputed fallbacks of IndexId, KeyId and PropertyId
+    private final Schema<T> indexFallback;
+
+    private final Schema<T> keyFallback;
+
+    private final Schema<T> propertyFallback;
+
     public static <T> Builder<T> builder() {
         return new Builder<>();
     }
@@ -53,6 +63,9 @@ public class Schema<T> extends SchemaBase<Schema<T>> {
 
         this.value = schemaBuilder.value;
         this.children = children.build();
+        this.indexFallback = super.resolve(NodeId.ANY_INDEX);
+        this.keyFallback = super.resolve(NodeId.ANY_KEY);
+        this.propertyFallback = super.resolve(NodeId.ANY_PROPERTY);
     }
 
     public T getValue() {
@@ -64,6 +77,25 @@ public class Schema<T> extends SchemaBase<Schema<T>> {
         return children.get(nodeId);
     }
 
+    /**
+     * Constant time resolution of child or its fallback.
+     */
+    @Override
+    public Schema<T> resolve(NodeId nodeId) {
+        Schema<T> child = children.get(nodeId);
+        if (child != null) {
+            return child;
+        } else if (nodeId instanceof IndexId) {
+            return indexFallback;
+        } else if (nodeId instanceof PropertyId) {
+            return propertyFallback;
+        } else if (nodeId instanceof KeyId) {
+            return keyFallback;
+        } else {
+            return super.resolve(nodeId);
+        }
+    }
+
     public boolean hasChildren() {
         return !children.isEmpty();
     }
@@ -72,6 +104,10 @@ public class Schema<T> extends SchemaBase<Schema<T>> {
         return children.containsKey(nodeId);
     }
 
+    public Map<NodeId, Schema<T>> getChildren() {
+        return children;
+    }
+
     public static class Builder<T> extends SchemaBase<Builder<T>> {
 
         private T value;
@@ -35,19 +35,23 @@ public abstract class SchemaBase<This extends SchemaBase<This>> {
         @SuppressWarnings("unchecked")
         This currentMapping = (This) this;
         for (PropertyPath currentPath : path.asList()) {
-            NodeId nodeId = currentPath.getNodeId();
-            @SuppressWarnings("unchecked")
-            This childMapping = currentMapping.getChild(nodeId);
-            while (childMapping == null && (nodeId = nodeId.fallbackId()) != null) {
-                childMapping = currentMapping.getChild(nodeId);
-            }
-            if (childMapping != null) {
-                currentMapping = childMapping;
-            } else {
+            currentMapping = currentMapping.resolve(currentPath.getNodeId());
+            if (currentMapping == null) {
                 return null;
             }
         }
         return currentMapping;
     }
 
+    /**
+     * @return child matching nodeId or its fallbacks (see {@link NodeId#fallbackId()}) or null if not found
+     */
+    public This resolve(NodeId nodeId) {
+        This child = getChild(nodeId);
+        while (child == null && (nodeId = nodeId.fallbackId()) != null) {
+            child = getChild(nodeId);
+        }
+        return child;
+    }
+
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.path;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.javersion.path.PropertyPath.SubPath;
+import org.javersion.util.Check;
+
+/**
+ * Memoizing path to Schema resolver. Schemas of resolved composite nodes (i.e. nodes with children)
+ * are remembered, so that resolving a child of an already resolved path is a single
+ * {@link Schema#resolve(NodeId)} instead of a walk from the root.
+ */
+@NotThreadSafe
+public final class SchemaResolver<T> {
+
+    private final Schema<T> root;
+
+    private final Map<PropertyPath, Schema<T>> parents = new HashMap<>();
+
+    public SchemaResolver(Schema<T> root) {
+        this.root = Check.notNull(root, "root");
+    }
+
+    public Schema<T> getRoot() {
+        return root;
+    }
+
+    public Schema<T> get(PropertyPath path) {
+        Schema<T> schema = find(path);
+        if (schema == null) {
+            throw new IllegalArgumentException("Path not found: " + path);
+        }
+        return schema;
+    }
+
+    public Schema<T> find(PropertyPath path) {
+        Check.notNull(path, "path");
+        if (path.isRoot()) {
+            return root;
+        }
+        Schema<T> schema = parents.get(path);
+        if (schema != null) {
+            return schema;
+        }
+        SubPath subPath = (SubPath) path;
+        Schema<T> parent = find(subPath.parent);
+        if (parent == null) {
+            return null;
+        }
+        schema = parent.resolve(subPath.nodeId);
+        if (schema != null && schema.hasChildren()) {
+            parents.put(path, schema);
+        }
+        return schema;
+    }
+}
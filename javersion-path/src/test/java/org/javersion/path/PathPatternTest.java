@@ -0,0 +1,92 @@
+package org.javersion.path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.path.PropertyPath.ROOT;
+import static org.javersion.path.PropertyPath.parse;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class PathPatternTest {
+
+    @Test
+    public void exact_paths() {
+        PathPattern pattern = PathPattern.compile(parse("a.b"), parse("a[1]"));
+        assertThat(pattern.matches(parse("a.b"))).isTrue();
+        assertThat(pattern.matches(parse("a[1]"))).isTrue();
+        assertThat(pattern.matches(parse("a"))).isFalse();
+        assertThat(pattern.matches(parse("a.b.c"))).isFalse();
+        assertThat(pattern.matches(parse("a[2]"))).isFalse();
+        assertThat(pattern.matches(ROOT)).isFalse();
+        assertThat(pattern.matchesDescendants(parse("a"))).isTrue();
+        assertThat(pattern.matchesDescendants(parse("b"))).isFalse();
+    }
+
+    @Test
+    public void wildcards_match_like_schema() {
+        PathPattern pattern = PathPattern.compile(parse("list[].name"), parse("map{}"), parse("object.*"), parse("any*"));
+
+        assertThat(pattern.matches(parse("list[0].name"))).isTrue();
+        assertThat(pattern.matches(parse("list[\"key\"].name"))).isFalse();
+        assertThat(pattern.matches(parse("list[0].other"))).isFalse();
+
+        assertThat(pattern.matches(parse("map[\"key\"]"))).isTrue();
+        assertThat(pattern.matches(parse("map.property"))).isTrue();
+        assertThat(pattern.matches(parse("map[1]"))).isFalse();
+
+        assertThat(pattern.matches(parse("object.property"))).isTrue();
+        assertThat(pattern.matches(parse("object[\"key\"]"))).isFalse();
+
+        assertThat(pattern.matches(parse("any[1]"))).isTrue();
+        assertThat(pattern.matches(parse("any[\"key\"]"))).isTrue();
+        assertThat(pattern.matches(parse("any.property"))).isTrue();
+        assertThat(pattern.matches(parse("any.property.other"))).isFalse();
+    }
+
+    @Test
+    public void overlapping_patterns() {
+        PathPattern pattern = PathPattern.compile(parse("*.a"), parse("x.b"), parse("x[].c"));
+        assertThat(pattern.matches(parse("x.a"))).isTrue();
+        assertThat(pattern.matches(parse("x.b"))).isTrue();
+        assertThat(pattern.matches(parse("y.a"))).isTrue();
+        assertThat(pattern.matches(parse("y.b"))).isFalse();
+        assertThat(pattern.matches(parse("x[1].c"))).isTrue();
+        assertThat(pattern.matches(parse("x.c"))).isFalse();
+    }
+
+    @Test
+    public void subtree() {
+        PathPattern pattern = PathPattern.builder()
+                .matchSubtree(parse("list[].secret"))
+                .match(parse("name"))
+                .build();
+        assertThat(pattern.matches(parse("list[1].secret"))).isTrue();
+        assertThat(pattern.matches(parse("list[1].secret.nested[\"key\"]"))).isTrue();
+        assertThat(pattern.matches(parse("list[1]"))).isFalse();
+        assertThat(pattern.matches(parse("name"))).isTrue();
+        assertThat(pattern.matches(parse("name.first"))).isFalse();
+    }
+
+    @Test
+    public void filter() {
+        Map<PropertyPath, Object> properties = ImmutableMap.of(
+                parse("list[0].name"), "first",
+                parse("list[0].id"), 1,
+                parse("list[1].name"), "second",
+                parse("list"), "list");
+        assertThat(PathPattern.compile(parse("list[].name")).filter(properties)).isEqualTo(ImmutableMap.of(
+                parse("list[0].name"), "first",
+                parse("list[1].name"), "second"));
+    }
+
+    @Test
+    public void empty_pattern() {
+        PathPattern pattern = PathPattern.builder().build();
+        assertThat(pattern.matches(ROOT)).isFalse();
+        assertThat(pattern.matches(parse("a"))).isFalse();
+        assertThat(PathPattern.compile(ROOT).matches(ROOT)).isTrue();
+    }
+}
@@ -0,0 +1,128 @@
+package org.javersion.path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.path.PropertyPath.ROOT;
+import static org.javersion.path.PropertyPath.parse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+public class PersistentPathMapTest {
+
+    @Test
+    public void empty() {
+        PersistentPathMap<String> map = PersistentPathMap.empty();
+        assertThat(map.size()).isEqualTo(0);
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(ROOT)).isNull();
+        assertThat(map.asMap()).isEmpty();
+        assertThat(map.subMap(parse("a.b")).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void assoc_and_get() {
+        PersistentPathMap<String> map = PersistentPathMap.<String>empty()
+                .assoc(ROOT, "root")
+                .assoc(parse("a"), "a")
+                .assoc(parse("a.b[1]"), "a.b[1]")
+                .assoc(parse("a.c"), null);
+        assertThat(map.size()).isEqualTo(4);
+        assertThat(map.get(parse("a.b[1]"))).isEqualTo("a.b[1]");
+        assertThat(map.get(parse("a.b"))).isNull();
+        assertThat(map.containsKey(parse("a.b"))).isFalse();
+        assertThat(map.containsKey(parse("a.c"))).isTrue();
+        assertThat(map.assoc(parse("a"), "a")).isSameAs(map);
+    }
+
+    @Test
+    public void parents_are_iterated_before_children() {
+        PersistentPathMap<Integer> map = PersistentPathMap.<Integer>empty()
+                .assoc(parse("a.b.c"), 3)
+                .assoc(parse("a"), 1)
+                .assoc(parse("a.b"), 2);
+        assertThat(map.asMap().keySet()).containsExactly(parse("a"), parse("a.b"), parse("a.b.c"));
+    }
+
+    @Test
+    public void sub_map() {
+        PersistentPathMap<String> map = PersistentPathMap.copyOf(ImmutableMap.of(
+                parse("a"), "a",
+                parse("a.b"), "a.b",
+                parse("a.b[0]"), "a.b[0]",
+                parse("a.c"), "a.c",
+                parse("b"), "b"));
+        PersistentPathMap<String> sub = map.subMap(parse("a.b"));
+        assertThat(sub.prefix).isEqualTo(parse("a.b"));
+        assertThat(sub.asMap()).isEqualTo(ImmutableMap.of(parse("a.b"), "a.b", parse("a.b[0]"), "a.b[0]"));
+        assertThat(sub.get(parse("a"))).isNull();
+        assertThat(sub.get(parse("a.c"))).isNull();
+        assertThat(sub.subMap(parse("a"))).isSameAs(sub);
+        assertThat(sub.subMap(parse("b")).isEmpty()).isTrue();
+        assertThat(map.subMap(parse("x")).isEmpty()).isTrue();
+        assertThat(map.subMap(ROOT)).isSameAs(map);
+
+        PersistentPathMap<String> updated = sub.assoc(parse("a.b[1]"), "a.b[1]");
+        assertThat(updated.size()).isEqualTo(3);
+        assertThat(sub.size()).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void assoc_outside_of_sub_map() {
+        PersistentPathMap.<String>empty().assoc(parse("a.b"), "a.b").subMap(parse("a")).assoc(parse("b"), "b");
+    }
+
+    @Test
+    public void dissoc() {
+        PersistentPathMap<String> map = PersistentPathMap.copyOf(ImmutableMap.of(
+                parse("a"), "a",
+                parse("a.b.c"), "a.b.c"));
+        assertThat(map.dissoc(parse("a.b"))).isSameAs(map);
+        assertThat(map.dissoc(parse("x"))).isSameAs(map);
+
+        PersistentPathMap<String> removed = map.dissoc(parse("a.b.c"));
+        assertThat(removed.asMap()).isEqualTo(ImmutableMap.of(parse("a"), "a"));
+        assertThat(removed.dissoc(parse("a")).isEmpty()).isTrue();
+
+        removed = map.dissoc(parse("a"));
+        assertThat(removed.asMap()).isEqualTo(ImmutableMap.of(parse("a.b.c"), "a.b.c"));
+    }
+
+    @Test
+    public void random_operations_match_hash_map() {
+        Random random = new Random(7);
+        Map<PropertyPath, Integer> expected = new HashMap<>();
+        PersistentPathMap<Integer> map = PersistentPathMap.empty();
+        for (int i = 0; i < 5000; i++) {
+            PropertyPath path = randomPath(random);
+            if (random.nextInt(4) == 0) {
+                expected.remove(path);
+                map = map.dissoc(path);
+            } else {
+                expected.put(path, i);
+                map = map.assoc(path, i);
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        assertThat(map.asMap()).isEqualTo(expected);
+
+        for (int i = 0; i < 100; i++) {
+            PropertyPath prefix = randomPath(random);
+            assertThat(map.subMap(prefix).asMap()).isEqualTo(Maps.filterKeys(expected, path -> path.startsWith(prefix)));
+        }
+    }
+
+    private static PropertyPath randomPath(Random random) {
+        PropertyPath path = ROOT;
+        int depth = random.nextInt(4);
+        for (int i = 0; i < depth; i++) {
+            path = random.nextBoolean() ? path.property("p" + random.nextInt(3)) : path.index(random.nextInt(3));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,90 @@
+package org.javersion.path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.path.PropertyPath.ROOT;
+import static org.javersion.path.PropertyPath.parse;
+
+import org.javersion.path.Schema.Builder;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class PropertyPathCodecTest {
+
+    private static final PropertyPath[] PATHS = {
+            ROOT,
+            parse("a"),
+            parse("list[0][1][-1][123456789]"),
+            ROOT.index(Long.MIN_VALUE).index(Long.MAX_VALUE),
+            ROOT.property("äö").key("").key("Ü \" \\ \n").key("😀"),
+            parse("map{}.*[]*.a"),
+            ROOT.key(new String(new char[200]).replace('\0', 'x'))
+    };
+
+    @Test
+    public void default_codec_round_trip() {
+        for (PropertyPath path : PATHS) {
+            byte[] bytes = PropertyPathCodec.DEFAULT.encode(path);
+            assertThat(PropertyPathCodec.DEFAULT.decode(bytes)).isEqualTo(path);
+            assertThat(path.toBytes()).isEqualTo(bytes);
+        }
+    }
+
+    @Test
+    public void root_is_empty() {
+        assertThat(ROOT.toBytes()).isEmpty();
+    }
+
+    @Test
+    public void cached_bytes_are_copied() {
+        PropertyPath path = parse("a.b");
+        path.toBytes()[0] = 0;
+        assertThat(PropertyPathCodec.DEFAULT.decode(path.toBytes())).isEqualTo(path);
+    }
+
+    @Test
+    public void property_ordinals() {
+        PropertyPathCodec codec = new PropertyPathCodec(ImmutableList.of("name", "children"));
+        PropertyPath path = parse("children[1].name");
+        byte[] bytes = codec.encode(path);
+        assertThat(bytes).hasSize(4);
+        assertThat(codec.decode(bytes)).isEqualTo(path);
+
+        PropertyPath unknown = parse("children[1].unknown");
+        assertThat(codec.decode(codec.encode(unknown))).isEqualTo(unknown);
+    }
+
+    @Test
+    public void schema_codec() {
+        Builder<String> root = new Builder<>("root");
+        Builder<String> any = new Builder<>("any");
+        root.getOrCreate(parse("parent.name"));
+        root.getOrCreate(parse("children[]"), "list").addChild(NodeId.ANY, any);
+        any.addChild(NodeId.ANY, any);
+        PropertyPathCodec codec = PropertyPathCodec.forSchema(root.build());
+
+        PropertyPath path = parse("parent.name");
+        assertThat(codec.encode(path)).hasSize(2);
+        assertThat(codec.decode(codec.encode(path))).isEqualTo(path);
+    }
+
+    @Test
+    public void decode_range() {
+        byte[] bytes = parse("a[1]").toBytes();
+        byte[] padded = new byte[bytes.length + 2];
+        System.arraycopy(bytes, 0, padded, 1, bytes.length);
+        assertThat(PropertyPathCodec.DEFAULT.decode(padded, 1, bytes.length)).isEqualTo(parse("a[1]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncated_input() {
+        byte[] bytes = parse("abc").toBytes();
+        PropertyPathCodec.DEFAULT.decode(bytes, 0, bytes.length - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown_ordinal() {
+        byte[] bytes = new PropertyPathCodec(ImmutableList.of("a")).encode(parse("a"));
+        PropertyPathCodec.DEFAULT.decode(bytes);
+    }
+}
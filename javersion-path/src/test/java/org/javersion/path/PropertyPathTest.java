@@ -154,6 +154,85 @@ public class PropertyPathTest {
         assertThat(ROOT.propertyOrKey("a-b")).isEqualTo(ROOT.key("a-b"));
     }
 
+    @Test
+    public void hand_written_parser_matches_antlr() {
+        for (String path : asList("a", "$", "_1", "\u00DCber", "a.b.c", "a[0]", "a[-12][3]", "a[\"k\"]",
+                "a[\"\\u00E4 \\t \\\\ \\\" \\' \\0 \\12\"]", "a{}", "a[]", "a.*", "*", "a.*.b", "[0]",
+                "[\"key\"].a", "{}", ".*", "**", "a[0].b[\"c\"]{}.*[]")) {
+            assertThat(PathParser.parse(path)).as(path).isEqualTo(PropertyPath.parseWithAntlr(path));
+        }
+    }
+
+    @Test
+    public void hand_written_parser_rejects_invalid_paths() {
+        for (String path : asList(".a", "a.", "a..b", "1a", "a b", "a[", "a[01]", "a[-0]", "a[1", "a[\"k]",
+                "a[\"\\x\"]", "a[\"\\u12\"]", "a{", "a}", "a]", "a.1", "a[0]b", "a-b")) {
+            assertThat(PathParser.parse(path)).as(path).isNull();
+            try {
+                parse(path);
+                Assert.fail("succeeded parsing invalid path: " + path);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void interned_paths_are_identical() {
+        PropertyPath path = parse("list[1].map[\"key\"].*");
+        PropertyPath interned = path.intern();
+        assertThat(interned).isEqualTo(path);
+        assertThat(parse("list[1].map[\"key\"].*").intern()).isSameAs(interned);
+        assertThat(interned.intern()).isSameAs(interned);
+
+        PropertyPath parent = ((SubPath) interned).parent;
+        assertThat(parse("list[1].map[\"key\"]").intern()).isSameAs(parent);
+        assertThat(parent.key("other").intern().getFullPath().get(2)).isSameAs(((SubPath) parent).parent);
+        assertThat(ROOT.intern()).isSameAs(ROOT);
+    }
+
+    @Test
+    public void different_interned_paths_are_not_equal() {
+        PropertyPath key = ROOT.key("a").intern();
+        PropertyPath property = ROOT.property("a").intern();
+        assertThat(key).isNotEqualTo(property);
+        assertThat(property).isNotEqualTo(ROOT.property("b").intern());
+        assertThat(property).isEqualTo(ROOT.property("a"));
+    }
+
+    @Test
+    public void depth() {
+        assertThat(ROOT.getDepth()).isEqualTo(0);
+        assertThat(parse("a").getDepth()).isEqualTo(1);
+        assertThat(parse("a[1].b{}.*").getDepth()).isEqualTo(5);
+    }
+
+    @Test
+    public void common_prefix() {
+        PropertyPath path = parse("a[1].b[\"c\"]");
+        assertThat(path.commonPrefix(path)).isSameAs(path);
+        assertThat(path.commonPrefix(parse("a[1].b[\"c\"]"))).isSameAs(path);
+        assertThat(path.commonPrefix(parse("a[1].b"))).isEqualTo(parse("a[1].b"));
+        assertThat(path.commonPrefix(parse("a[1].c[\"c\"]"))).isEqualTo(parse("a[1]"));
+        assertThat(path.commonPrefix(parse("a[2].b[\"c\"].d"))).isEqualTo(parse("a"));
+        assertThat(path.commonPrefix(parse("b"))).isSameAs(ROOT);
+        assertThat(path.commonPrefix(ROOT)).isSameAs(ROOT);
+        assertThat(ROOT.commonPrefix(path)).isSameAs(ROOT);
+    }
+
+    @Test
+    public void compare_to_is_lexicographic_by_node() {
+        PropertyPath path = parse("a[1].b[\"c\"]");
+        assertThat(path.compareTo(parse("a[1].b[\"c\"]"))).isEqualTo(0);
+        assertThat(path.compareTo(parse("a[1].b"))).isGreaterThan(0);
+        assertThat(parse("a[1].b").compareTo(path)).isLessThan(0);
+        // topmost difference decides
+        assertThat(path.compareTo(parse("a[2].a[\"a\"]"))).isLessThan(0);
+        assertThat(path.compareTo(parse("a[0].c"))).isGreaterThan(0);
+        assertThat(path.compareTo(ROOT)).isGreaterThan(0);
+        assertThat(ROOT.compareTo(ROOT)).isEqualTo(0);
+    }
+
     @Test
     public void parse_root() {
         assertThat(parse("")).isEqualTo(ROOT);
@@ -26,8 +26,15 @@ import static org.javersion.path.PropertyPath.parse;
 import static org.javersion.path.PropertyPathTest.children;
 import static org.javersion.path.PropertyPathTest.children_0;
 import static org.javersion.path.PropertyPathTest.children_0_name;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+
 import org.junit.Test;
 
 public class PropertyTreeTest {
@@ -116,4 +123,59 @@ public class PropertyTreeTest {
         PropertyPath path = children_0_name();
         PropertyTree.build(path).get(children.index(123));
     }
+
+    @Test
+    public void children_are_sorted_by_node_id() {
+        PropertyTree tree = PropertyTree.build(
+                parse("list[10]"),
+                parse("list[2]"),
+                parse("list[\"key\"]"),
+                parse("list.property"),
+                parse("list[0]"));
+        SortedMap<NodeId, PropertyTree> children = tree.get(property("list")).getChildrenMap();
+        assertThat(new ArrayList<>(children.keySet()), equalTo(asList(
+                index(0), index(2), index(10), property("property"), NodeId.key("key"))));
+        assertThat(children.firstKey(), equalTo(index(0)));
+        assertThat(children.lastKey(), equalTo(NodeId.key("key")));
+        assertThat(new ArrayList<>(children.subMap(index(1), index(10)).keySet()), equalTo(asList(index(2))));
+        assertThat(children.headMap(index(2)).size(), equalTo(1));
+        assertThat(children.tailMap(index(2)).size(), equalTo(4));
+        assertThat(children.get(index(10)).path, equalTo(parse("list[10]")));
+        assertThat(children.get(index(3)), nullValue());
+    }
+
+    @Test
+    public void random_paths() {
+        Random random = new Random(3);
+        List<PropertyPath> paths = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            PropertyPath path = ROOT;
+            int depth = 1 + random.nextInt(4);
+            for (int j = 0; j < depth; j++) {
+                path = random.nextBoolean() ? path.property("p" + random.nextInt(4)) : path.index(random.nextInt(4));
+            }
+            paths.add(path);
+        }
+        PropertyTree unsorted = PropertyTree.build(paths);
+        Collections.sort(paths);
+        PropertyTree sorted = PropertyTree.build(paths);
+        for (PropertyPath path : paths) {
+            assertThat(unsorted.get(path).path, equalTo(path));
+            assertThat(sorted.get(path).path, equalTo(path));
+        }
+        assertTree(unsorted);
+        assertTree(sorted);
+    }
+
+    private void assertTree(PropertyTree tree) {
+        NodeId previous = null;
+        for (PropertyTree child : tree.getChildren()) {
+            assertThat(((PropertyPath.SubPath) child.path).parent, equalTo(tree.path));
+            if (previous != null) {
+                assertThat(previous.compareTo(child.getNodeId()) < 0, equalTo(true));
+            }
+            previous = child.getNodeId();
+            assertTree(child);
+        }
+    }
 }
@@ -112,4 +112,48 @@ public class SchemaTest {
     public void schema_get_child_by_null_throws_exception() {
         new Builder<>().build().getChild(null);
     }
+
+    @Test
+    public void compiled_resolve_matches_builder() {
+        Builder<String> root = new Builder<>("root");
+        root.getOrCreate(parse("map{}"), "anyKey");
+        root.getOrCreate(parse("map[\"special\"]"), "special");
+        root.getOrCreate(parse("list[]"), "anyIndex");
+        root.getOrCreate(parse("list[0]"), "first");
+        root.getOrCreate(parse("object.*"), "anyProperty");
+        root.getOrCreate(parse("any*"), "any");
+        Schema<String> schema = root.build();
+
+        for (String path : new String[] { "map.foo", "map[\"foo\"]", "map[\"special\"]", "map[1]",
+                "list[0]", "list[1]", "list[\"key\"]", "list.property", "object.foo", "object[\"foo\"]",
+                "object[1]", "any.foo", "any[\"foo\"]", "any[1]", "any.*", "any{}", "any[]" }) {
+            Builder<String> expected = root.find(parse(path));
+            Schema<String> actual = schema.find(parse(path));
+            assertThat(actual == null ? null : actual.getValue())
+                    .as(path)
+                    .isEqualTo(expected == null ? null : expected.getValue());
+        }
+    }
+
+    @Test
+    public void schema_resolver() {
+        Builder<String> root = new Builder<>("root");
+        root.getOrCreate(parse("list[].name"), "name");
+        root.getOrCreate(parse("list[]"), "element");
+        Schema<String> schema = root.build();
+        SchemaResolver<String> resolver = new SchemaResolver<>(schema);
+
+        assertThat(resolver.get(ROOT)).isSameAs(schema);
+        for (int i = 0; i < 10; i++) {
+            assertThat(resolver.get(parse("list[" + i + "]")).getValue()).isEqualTo("element");
+            assertThat(resolver.get(parse("list[" + i + "].name")).getValue()).isEqualTo("name");
+        }
+        assertThat(resolver.find(parse("list[0].other"))).isNull();
+        assertThat(resolver.find(parse("other.name"))).isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void schema_resolver_path_not_found() {
+        new SchemaResolver<>(new Builder<>("root").build()).get(parse("foo"));
+    }
 }
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.processor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.element.Modifier.TRANSIENT;
+import static javax.tools.Diagnostic.Kind.ERROR;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.javersion.object.GeneratedField;
+import org.javersion.object.GeneratedVersionable;
+import org.javersion.object.Id;
+import org.javersion.object.VersionIgnore;
+import org.javersion.object.VersionProperty;
+import org.javersion.object.Versionable;
+import org.javersion.object.VersionableIndex;
+import org.javersion.reflect.AccessStrategy;
+import org.javersion.reflect.GeneratedFieldAccessors;
+
+/**
+ * Writes binary names of {@link Versionable} classes of the compilation into {@link VersionableIndex#RESOURCE}
+ * so that their schemas can be described at startup without classpath scanning, and generates
+ * for each class
+ * <ul>
+ *     <li>{@link GeneratedFieldAccessors} that read and write the non-private, non-static and
+ *     non-final fields accessible from the package of the class directly.</li>
+ *     <li>{@link GeneratedVersionable} with the versionable fields of the class and its super
+ *     classes, if the class can be described without reflection: it's a concrete, non-generic
+ *     class with a non-private no-arg constructor, no subclasses, no annotated methods or
+ *     constructors and no field annotations other than {@link VersionProperty}, {@link Id} and
+ *     {@link VersionIgnore}. Other classes are described through reflection.</li>
+ * </ul>
+ * The index covers the classes of one compilation, so incremental compilation of only some
+ * sources produces a partial index.
+ */
+@SupportedAnnotationTypes("org.javersion.object.Versionable")
+public class VersionableProcessor extends AbstractProcessor {
+
+    private static final String FIELD_ACCESSOR = AccessStrategy.FieldAccessor.class.getCanonicalName();
+
+    private static final String TYPE_TOKEN = "com.google.common.reflect.TypeToken";
+
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Versionable.class)) {
+            if (element instanceof TypeElement) {
+                TypeElement type = (TypeElement) element;
+                classNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+                writeFieldAccessors(type);
+                writeVersionable(type);
+            }
+        }
+        if (roundEnv.processingOver() && !classNames.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeFieldAccessors(TypeElement type) {
+        PackageElement pkg = getPackage(type);
+        if (type.getKind() != ElementKind.CLASS || !isAccessible(type, pkg)) {
+            return;
+        }
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!field.getModifiers().contains(STATIC) && hasAccessor(field, pkg)) {
+                fields.add(field);
+            }
+        }
+        if (fields.isEmpty()) {
+            return;
+        }
+        try (PrintWriter out = createSourceFile(type, GeneratedFieldAccessors.SUFFIX)) {
+            out.println("public final class " + getSimpleName(type, GeneratedFieldAccessors.SUFFIX) + " implements " + GeneratedFieldAccessors.class.getName() + " {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.Map<java.lang.String, " + FIELD_ACCESSOR + "> getFieldAccessors() {");
+            out.println("        java.util.Map<java.lang.String, " + FIELD_ACCESSOR + "> accessors = new java.util.HashMap<java.lang.String, " + FIELD_ACCESSOR + ">();");
+            for (VariableElement field : fields) {
+                out.print("        accessors.put(\"" + field.getSimpleName() + "\", ");
+                printAccessor(out, field);
+                out.println(");");
+            }
+            out.println("        return accessors;");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(ERROR, "Failed to write field accessors of " + type + ": " + e, type);
+        }
+    }
+
+    private void writeVersionable(TypeElement type) {
+        PackageElement pkg = getPackage(type);
+        if (!isDescribable(type, pkg)) {
+            return;
+        }
+        List<VariableElement> fields = new ArrayList<>();
+        Set<String> fieldNames = new HashSet<>();
+        for (TypeElement clazz = type; clazz != null; clazz = getSuperclass(clazz)) {
+            for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+                // Fields of sub classes hide fields of super classes
+                if (!field.getModifiers().contains(STATIC) && fieldNames.add(field.getSimpleName().toString())) {
+                    if (!isDescribable(field, pkg)) {
+                        return;
+                    }
+                    if (!field.getModifiers().contains(TRANSIENT) && field.getAnnotation(VersionIgnore.class) == null) {
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+        try (PrintWriter out = createSourceFile(type, GeneratedVersionable.SUFFIX)) {
+            String fieldClass = GeneratedField.class.getName();
+            out.println("public final class " + getSimpleName(type, GeneratedVersionable.SUFFIX) + " implements " + GeneratedVersionable.class.getName() + " {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.lang.Object newInstance() {");
+            out.println("        return new " + type.getQualifiedName() + "();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<" + fieldClass + "> getFields() {");
+            out.println("        java.util.List<" + fieldClass + "> fields = new java.util.ArrayList<" + fieldClass + ">();");
+            for (VariableElement field : fields) {
+                TypeElement declaringClass = (TypeElement) field.getEnclosingElement();
+                out.print("        fields.add(new " + fieldClass + "(");
+                out.print(declaringClass.getQualifiedName() + ".class, ");
+                out.print("\"" + field.getSimpleName() + "\", ");
+                out.print("\"" + escape(getPropertyName(field)) + "\", ");
+                out.print((field.getAnnotation(Id.class) != null) + ", ");
+                out.print(typeToken(field.asType()) + ", ");
+                if (hasAccessor(field, pkg)) {
+                    printAccessor(out, field);
+                } else {
+                    out.print("null");
+                }
+                out.println("));");
+            }
+            out.println("        return fields;");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(ERROR, "Failed to write versionable description of " + type + ": " + e, type);
+        }
+    }
+
+    private PrintWriter createSourceFile(TypeElement type, String suffix) throws IOException {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(binaryName + suffix, type).openWriter());
+        PackageElement pkg = getPackage(type);
+        if (!pkg.isUnnamed()) {
+            out.println("package " + pkg.getQualifiedName() + ";");
+            out.println();
+        }
+        out.println("// Generated by " + getClass().getName());
+        out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+        return out;
+    }
+
+    private String getSimpleName(TypeElement type, String suffix) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return binaryName.substring(binaryName.lastIndexOf('.') + 1) + suffix;
+    }
+
+    private void printAccessor(PrintWriter out, VariableElement field) {
+        String owner = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+        String name = field.getSimpleName().toString();
+        out.println("new " + FIELD_ACCESSOR + "() {");
+        out.println("            @Override");
+        out.println("            public java.lang.Object get(java.lang.Object object) {");
+        out.println("                return ((" + owner + ") object)." + name + ";");
+        out.println("            }");
+        out.println("            @Override");
+        out.println("            public void set(java.lang.Object object, java.lang.Object value) {");
+        out.println("                ((" + owner + ") object)." + name + " = (" + castType(field.asType()) + ") value;");
+        out.println("            }");
+        out.print("        }");
+    }
+
+    private static String getPropertyName(VariableElement field) {
+        VersionProperty versionProperty = field.getAnnotation(VersionProperty.class);
+        if (versionProperty != null && versionProperty.value().length() > 0) {
+            return versionProperty.value();
+        }
+        return field.getSimpleName().toString();
+    }
+
+    private static String escape(String str) {
+        return str.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private String typeToken(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        if (processingEnv.getTypeUtils().isSameType(type, erasure)) {
+            return TYPE_TOKEN + ".of(" + erasure + ".class)";
+        }
+        return "new " + TYPE_TOKEN + "<" + type + ">() {}";
+    }
+
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private boolean isDescribable(TypeElement type, PackageElement pkg) {
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(ABSTRACT)
+                || !isAccessible(type, pkg)
+                || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(STATIC))
+                || type.getAnnotation(Versionable.class).subclasses().length > 0
+                || hasMappingAnnotation(type)) {
+            return false;
+        }
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(PRIVATE)) {
+                hasConstructor = true;
+            }
+        }
+        if (!hasConstructor) {
+            return false;
+        }
+        for (TypeElement clazz = type; clazz != null; clazz = getSuperclass(clazz)) {
+            if (!clazz.getTypeParameters().isEmpty() || !isAccessible(clazz, pkg)) {
+                return false;
+            }
+            for (Element member : clazz.getEnclosedElements()) {
+                if (member instanceof ExecutableElement && hasMappingAnnotation((ExecutableElement) member)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isDescribable(VariableElement field, PackageElement pkg) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            String name = getName(annotation);
+            if (isMappingAnnotation(name)
+                    && !name.equals(VersionProperty.class.getName())
+                    && !name.equals(Id.class.getName())
+                    && !name.equals(VersionIgnore.class.getName())) {
+                return false;
+            }
+        }
+        return field.getAnnotation(VersionIgnore.class) != null
+                || field.getModifiers().contains(TRANSIENT)
+                || isRepresentable(field.asType(), pkg);
+    }
+
+    private boolean hasMappingAnnotation(TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (isJackson(getName(annotation))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasMappingAnnotation(ExecutableElement executable) {
+        List<Element> elements = new ArrayList<>();
+        elements.add(executable);
+        elements.addAll(executable.getParameters());
+        for (Element element : elements) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                if (isMappingAnnotation(getName(annotation))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMappingAnnotation(String name) {
+        return name.startsWith("org.javersion.") || isJackson(name);
+    }
+
+    private static boolean isJackson(String name) {
+        return name.startsWith("com.fasterxml.jackson.");
+    }
+
+    private static String getName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * @return true if type can be written in the source of the package
+     */
+    private boolean isRepresentable(TypeMirror type, PackageElement pkg) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return isRepresentable(((ArrayType) type).getComponentType(), pkg);
+            case DECLARED:
+                if (!isAccessible((TypeElement) ((DeclaredType) type).asElement(), pkg)) {
+                    return false;
+                }
+                for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+                    if (!isRepresentable(typeArgument, pkg)) {
+                        return false;
+                    }
+                }
+                return true;
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                return (wildcard.getExtendsBound() == null || isRepresentable(wildcard.getExtendsBound(), pkg))
+                        && (wildcard.getSuperBound() == null || isRepresentable(wildcard.getSuperBound(), pkg));
+            default:
+                return type.getKind().isPrimitive();
+        }
+    }
+
+    /**
+     * @return true if generated code in pkg can read and write the field
+     */
+    private boolean hasAccessor(VariableElement field, PackageElement pkg) {
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        boolean samePackage = getPackage(owner).equals(pkg);
+        return !field.getModifiers().contains(PRIVATE)
+                && !field.getModifiers().contains(FINAL)
+                && (samePackage || field.getModifiers().contains(PUBLIC))
+                && isAccessible(owner, pkg)
+                && isAccessible(processingEnv.getTypeUtils().erasure(field.asType()), pkg);
+    }
+
+    private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) type).getComponentType(), pkg);
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            return isAccessible((TypeElement) ((DeclaredType) type).asElement(), pkg);
+        }
+        return type.getKind().isPrimitive();
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement pkg) {
+        boolean samePackage = getPackage(type).equals(pkg);
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getNestingKind() == NestingKind.LOCAL
+                    || typeElement.getNestingKind() == NestingKind.ANONYMOUS
+                    || typeElement.getModifiers().contains(PRIVATE)
+                    || (!samePackage && !typeElement.getModifiers().contains(PUBLIC))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private PackageElement getPackage(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", VersionableIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), UTF_8)) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(ERROR, "Failed to write " + VersionableIndex.RESOURCE + ": " + e);
+        }
+    }
+}
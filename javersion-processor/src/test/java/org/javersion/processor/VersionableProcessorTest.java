@@ -0,0 +1,249 @@
+package org.javersion.processor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.javersion.object.DescribeContext;
+import org.javersion.object.GeneratedVersionable;
+import org.javersion.object.ObjectSerializer;
+import org.javersion.object.SchemaCache;
+import org.javersion.object.TypeMappings;
+import org.javersion.object.Versionable;
+import org.javersion.object.VersionableIndex;
+import org.javersion.object.mapping.DefaultMappingResolver;
+import org.javersion.object.mapping.JaversionMappingResolver;
+import org.javersion.object.types.BasicObjectType;
+import org.javersion.object.types.ValueType;
+import org.javersion.path.PropertyPath;
+import org.javersion.path.Schema;
+import org.javersion.reflect.FieldDescriptor;
+import org.javersion.reflect.GeneratedFieldAccessors;
+import org.javersion.reflect.ReflectionException;
+import org.javersion.reflect.TypeDescriptor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.common.reflect.TypeToken;
+
+public class VersionableProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void index_versionable_classes() throws Exception {
+        File sources = folder.newFolder("src");
+        File classes = folder.newFolder("classes");
+        Path pkg = Files.createDirectories(sources.toPath().resolve("test"));
+        Files.write(pkg.resolve("Product.java"), (
+                "package test;\n" +
+                "@org.javersion.object.Versionable\n" +
+                "public class Product {\n" +
+                "    public String name;\n" +
+                "    @org.javersion.object.Versionable\n" +
+                "    public static class Part { public long id; }\n" +
+                "}\n").getBytes(UTF_8));
+        Files.write(pkg.resolve("Plain.java"), "package test;\npublic class Plain {}\n".getBytes(UTF_8));
+
+        compile(classes, pkg.resolve("Product.java"), pkg.resolve("Plain.java"));
+
+        List<String> index = Files.readAllLines(classes.toPath().resolve(VersionableIndex.RESOURCE), UTF_8);
+        assertThat(index).containsExactly("test.Product", "test.Product$Part");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader())) {
+            List<Class<?>> indexed = new SchemaCache(TypeMappings.DEFAULT, 10).warmUpIndexed(classLoader);
+            assertThat(indexed).extracting(Class::getName).containsExactly("test.Product", "test.Product$Part");
+        }
+    }
+
+    @Test
+    public void generate_field_accessors() throws Exception {
+        File sources = folder.newFolder("src");
+        File classes = folder.newFolder("classes");
+        Path pkg = Files.createDirectories(sources.toPath().resolve("test"));
+        Files.write(pkg.resolve("Product.java"), (
+                "package test;\n" +
+                "@org.javersion.object.Versionable\n" +
+                "public class Product {\n" +
+                "    public String name;\n" +
+                "    long price;\n" +
+                "    public java.util.List<Part> parts = new java.util.ArrayList<>();\n" +
+                "    private String secret;\n" +
+                "    public final String constant = \"constant\";\n" +
+                "    @org.javersion.object.VersionIgnore public Hidden hidden;\n" +
+                "    public static String shared;\n" +
+                "    private static class Hidden {}\n" +
+                "    @org.javersion.object.Versionable\n" +
+                "    public static class Part { public long id; }\n" +
+                "}\n").getBytes(UTF_8));
+
+        compile(classes, pkg.resolve("Product.java"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader())) {
+            Class<?> product = classLoader.loadClass("test.Product");
+            GeneratedFieldAccessors accessors = (GeneratedFieldAccessors)
+                    classLoader.loadClass("test.Product" + GeneratedFieldAccessors.SUFFIX).newInstance();
+            assertThat(accessors.getFieldAccessors().keySet()).containsOnly("name", "price", "parts");
+            assertThat(classLoader.loadClass("test.Product$Part" + GeneratedFieldAccessors.SUFFIX)).isNotNull();
+
+            // Failures of generated accessors are wrapped like those of reflection
+            TypeDescriptor type = TypeMappings.DEFAULT_TYPES.get(product);
+            Object instance = product.newInstance();
+            assertThatThrownBy(() -> type.getField("name").set(instance, 1))
+                    .isInstanceOf(ReflectionException.class)
+                    .hasCauseInstanceOf(ClassCastException.class);
+            assertThatThrownBy(() -> type.getField("secret").set(instance, 1)).isInstanceOf(ReflectionException.class);
+
+            type.getField("name").set(instance, "name");
+            type.getField("price").set(instance, 10l);
+            assertThat(type.getField("price").get(instance)).isEqualTo(10l);
+        }
+    }
+
+    @Test
+    public void describe_generated_versionable_without_reflection() throws Exception {
+        File sources = folder.newFolder("src");
+        File classes = folder.newFolder("classes");
+        Path pkg = Files.createDirectories(sources.toPath().resolve("test"));
+        Files.write(pkg.resolve("Base.java"), (
+                "package test;\n" +
+                "public class Base {\n" +
+                "    private String secret;\n" +
+                "    public String getSecret() { return secret; }\n" +
+                "    public void setSecret(String secret) { this.secret = secret; }\n" +
+                "}\n").getBytes(UTF_8));
+        Files.write(pkg.resolve("Product.java"), (
+                "package test;\n" +
+                "@org.javersion.object.Versionable(alias = \"P\")\n" +
+                "public class Product extends Base {\n" +
+                "    public String name;\n" +
+                "    @org.javersion.object.VersionProperty(\"cost\") long price;\n" +
+                "    public java.util.List<Part> parts = new java.util.ArrayList<>();\n" +
+                "    public java.util.Map<String, Long> counts;\n" +
+                "    public transient String cached;\n" +
+                "    @org.javersion.object.VersionIgnore public Object ignored;\n" +
+                "    @org.javersion.object.Versionable\n" +
+                "    public static class Part { @org.javersion.object.Id public long id; public String label; }\n" +
+                "}\n").getBytes(UTF_8));
+        Files.write(pkg.resolve("Created.java"), (
+                "package test;\n" +
+                "@org.javersion.object.Versionable\n" +
+                "public class Created {\n" +
+                "    public final String name;\n" +
+                "    @org.javersion.object.VersionCreator\n" +
+                "    public Created(@org.javersion.reflect.Param(\"name\") String name) { this.name = name; }\n" +
+                "}\n").getBytes(UTF_8));
+        Files.write(pkg.resolve("Box.java"), (
+                "package test;\n" +
+                "@org.javersion.object.Versionable\n" +
+                "public class Box<T> { public T value; }\n").getBytes(UTF_8));
+
+        compile(classes, pkg.resolve("Base.java"), pkg.resolve("Product.java"), pkg.resolve("Created.java"), pkg.resolve("Box.java"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader())) {
+            GeneratedVersionable generated = (GeneratedVersionable)
+                    classLoader.loadClass("test.Product" + GeneratedVersionable.SUFFIX).newInstance();
+            assertThat(generated.getFields()).extracting(field -> field.name)
+                    .containsOnly("name", "cost", "parts", "counts", "secret");
+            assertThat(classLoader.loadClass("test.Product$Part" + GeneratedVersionable.SUFFIX)).isNotNull();
+            // Classes that need reflection to be described
+            assertThat(classes.toPath().resolve("test/Created" + GeneratedVersionable.SUFFIX + ".class").toFile()).doesNotExist();
+            assertThat(classes.toPath().resolve("test/Box" + GeneratedVersionable.SUFFIX + ".class").toFile()).doesNotExist();
+
+            Class<?> product = classLoader.loadClass("test.Product");
+            Schema<ValueType> generatedSchema = new DescribeContext(TypeMappings.DEFAULT).describeSchema(product);
+            TypeMappings reflective = TypeMappings.builder()
+                    .withMappingResolvers(new JaversionMappingResolver(), new DefaultMappingResolver())
+                    .build();
+            Schema<ValueType> reflectedSchema = new DescribeContext(reflective).describeSchema(product);
+
+            BasicObjectType objectType = (BasicObjectType) generatedSchema.getValue();
+            assertThat(objectType.getAlias()).isEqualTo("P");
+            assertThat(objectType.getProperties().get("name")).isNotInstanceOf(FieldDescriptor.class);
+            assertThat(((BasicObjectType) reflectedSchema.getValue()).getProperties().get("name")).isInstanceOf(FieldDescriptor.class);
+            assertThat(describe(generatedSchema)).isEqualTo(describe(reflectedSchema)).containsKey("parts[].id");
+
+            Object instance = product.newInstance();
+            TypeDescriptor type = TypeMappings.DEFAULT_TYPES.get(product);
+            type.getField("name").set(instance, "name");
+            type.getField("price").set(instance, 10l);
+            type.getField("secret").set(instance, "secret");
+            assertThat(roundTrip(product, instance, TypeMappings.DEFAULT))
+                    .isEqualTo(roundTrip(product, instance, reflective))
+                    .containsEntry(PropertyPath.parse("cost"), 10l)
+                    .containsEntry(PropertyPath.parse("secret"), "secret");
+        }
+    }
+
+    private static <T> Map<PropertyPath, Object> roundTrip(Class<T> clazz, Object instance, TypeMappings typeMappings) {
+        ObjectSerializer<T> serializer = new ObjectSerializer<>(clazz, typeMappings);
+        Map<PropertyPath, Object> properties = serializer.toPropertyMap(clazz.cast(instance));
+        assertThat(serializer.toPropertyMap(serializer.fromPropertyMap(properties))).isEqualTo(properties);
+        return properties;
+    }
+
+    private static Map<String, String> describe(Schema<ValueType> schema) {
+        Map<String, String> description = new TreeMap<>();
+        describe(PropertyPath.ROOT, schema, description, Sets.newIdentityHashSet());
+        return description;
+    }
+
+    private static void describe(PropertyPath path, Schema<ValueType> schema, Map<String, String> description, Set<Schema<ValueType>> visited) {
+        description.put(path.toString(), schema.getValue().getClass().getSimpleName());
+        if (visited.add(schema)) {
+            schema.getChildren().forEach((nodeId, child) -> describe(nodeId.toPath(path), child, description, visited));
+        }
+    }
+
+    @Test
+    public void no_index_without_versionables() throws Exception {
+        File sources = folder.newFolder("src");
+        File classes = folder.newFolder("classes");
+        Path source = Files.write(sources.toPath().resolve("Plain.java"), "public class Plain {}\n".getBytes(UTF_8));
+
+        compile(classes, source);
+
+        assertThat(classes.toPath().resolve(VersionableIndex.RESOURCE).toFile()).doesNotExist();
+    }
+
+    private static void compile(File classes, Path... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8)) {
+            String classPath = Joiner.on(File.pathSeparator).join(classPathOf(Versionable.class),
+                    classPathOf(GeneratedFieldAccessors.class), classPathOf(TypeToken.class), classPathOf(Nullable.class));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    ImmutableList.of("-d", classes.getPath(), "-classpath", classPath, "-implicit:none"),
+                    null,
+                    fileManager.getJavaFileObjects(Arrays.stream(sources).map(Path::toFile).toArray(File[]::new)));
+            task.setProcessors(ImmutableList.of(new VersionableProcessor()));
+            assertThat(task.call()).isTrue();
+        }
+    }
+
+    private static String classPathOf(Class<?> clazz) {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.reflect;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.javersion.util.Check;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Strategy for reading and writing fields and invoking methods and constructors. Members are bound
+ * to an accessor once per descriptor.
+ * <p>
+ * All strategies share the same exception contract: Errors are propagated as such, exceptions
+ * thrown by an invoked method or constructor are wrapped in ReflectionException with an
+ * InvocationTargetException cause and other failures in ReflectionException.
+ *
+ * @see TypeDescriptors#TypeDescriptors(com.google.common.base.Predicate, AccessStrategy)
+ */
+@Immutable
+public abstract class AccessStrategy {
+
+    /**
+     * Core reflection: Field.get/set, Method.invoke and Constructor.newInstance.
+     */
+    public static final AccessStrategy REFLECTION = new AccessStrategy() {
+        @Override
+        FieldAccessor fieldAccessor(Field field) {
+            return new ReflectionFieldAccessor(field);
+        }
+
+        @Override
+        Invoker methodInvoker(Method method) {
+            return (target, args) -> {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw invocationFailure(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new ReflectionException(e);
+                }
+            };
+        }
+
+        @Override
+        Invoker constructorInvoker(Constructor<?> constructor) {
+            return (target, args) -> {
+                try {
+                    return constructor.newInstance(args);
+                } catch (InvocationTargetException e) {
+                    throw invocationFailure(e.getCause());
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new ReflectionException(e);
+                }
+            };
+        }
+    };
+
+    /**
+     * MethodHandles adapted to a fixed (Object, Object[])Object shape. Falls back to reflection for members that
+     * cannot be unreflected and for writing final fields.
+     */
+    public static final AccessStrategy METHOD_HANDLES = new AccessStrategy() {
+        @Override
+        FieldAccessor fieldAccessor(Field field) {
+            return new MethodHandleFieldAccessor(field);
+        }
+
+        @Override
+        Invoker methodInvoker(Method method) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method).asFixedArity();
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return new MethodHandleInvoker(method.getParameterCount(), handle
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(methodType(Object.class, Object.class, Object[].class)));
+            } catch (IllegalAccessException e) {
+                return REFLECTION.methodInvoker(method);
+            }
+        }
+
+        @Override
+        Invoker constructorInvoker(Constructor<?> constructor) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asFixedArity();
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                return new MethodHandleInvoker(constructor.getParameterCount(), handle
+                        .asSpreader(Object[].class, constructor.getParameterCount())
+                        .asType(methodType(Object.class, Object.class, Object[].class)));
+            } catch (IllegalAccessException e) {
+                return REFLECTION.constructorInvoker(constructor);
+            }
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Uses compile time {@link GeneratedFieldAccessors} of the declaring class of a field when present,
+     * and <code>fallback</code> for other fields, methods and constructors.
+     */
+    public static AccessStrategy generated(AccessStrategy fallback) {
+        return new GeneratedAccessStrategy(fallback);
+    }
+
+    AccessStrategy() {}
+
+    abstract FieldAccessor fieldAccessor(Field field);
+
+    private static ReflectionException invocationFailure(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ReflectionException(new InvocationTargetException(cause));
+    }
+
+    private static ReflectionException accessFailure(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ReflectionException(cause);
+    }
+
+    abstract Invoker methodInvoker(Method method);
+
+    abstract Invoker constructorInvoker(Constructor<?> constructor);
+
+    public interface FieldAccessor {
+
+        Object get(Object obj);
+
+        void set(Object obj, Object value);
+    }
+
+    interface Invoker {
+
+        /**
+         * @param target null for static methods and constructors
+         */
+        Object invoke(Object target, Object[] args);
+    }
+
+    private static final class GeneratedAccessStrategy extends AccessStrategy {
+
+        /**
+         * Generated classes are loaded by the class loader of the declaring class, so they don't keep
+         * the declaring class reachable any longer than it otherwise would be.
+         */
+        private static final ClassValue<Map<String, FieldAccessor>> GENERATED = new ClassValue<Map<String, FieldAccessor>>() {
+            @Override
+            protected Map<String, FieldAccessor> computeValue(Class<?> type) {
+                try {
+                    Class<?> generated = Class.forName(type.getName() + GeneratedFieldAccessors.SUFFIX, true, type.getClassLoader());
+                    return ImmutableMap.copyOf(((GeneratedFieldAccessors) generated.newInstance()).getFieldAccessors());
+                } catch (ClassNotFoundException e) {
+                    return ImmutableMap.of();
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new ReflectionException(e);
+                }
+            }
+        };
+
+        private final AccessStrategy fallback;
+
+        GeneratedAccessStrategy(AccessStrategy fallback) {
+            this.fallback = Check.notNull(fallback, "fallback");
+        }
+
+        @Override
+        FieldAccessor fieldAccessor(Field field) {
+            FieldAccessor accessor = GENERATED.get(field.getDeclaringClass()).get(field.getName());
+            return accessor != null ? new GeneratedFieldAccessor(accessor) : fallback.fieldAccessor(field);
+        }
+
+        @Override
+        Invoker methodInvoker(Method method) {
+            return fallback.methodInvoker(method);
+        }
+
+        @Override
+        Invoker constructorInvoker(Constructor<?> constructor) {
+            return fallback.constructorInvoker(constructor);
+        }
+    }
+
+    /**
+     * Wraps failures, e.g. ClassCastException for a value of wrong type, in ReflectionException like reflection does.
+     */
+    private static final class GeneratedFieldAccessor implements FieldAccessor {
+
+        private final FieldAccessor accessor;
+
+        GeneratedFieldAccessor(FieldAccessor accessor) {
+            this.accessor = accessor;
+        }
+
+        @Override
+        public Object get(Object obj) {
+            try {
+                return accessor.get(obj);
+            } catch (RuntimeException e) {
+                throw new ReflectionException(e);
+            }
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            try {
+                accessor.set(obj, value);
+            } catch (RuntimeException e) {
+                throw new ReflectionException(e);
+            }
+        }
+    }
+
+    private static final class ReflectionFieldAccessor implements FieldAccessor {
+
+        private final Field field;
+
+        ReflectionFieldAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object get(Object obj) {
+            try {
+                return field.get(obj);
+            } catch (IllegalAccessException e) {
+                throw new ReflectionException(e);
+            }
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            try {
+                field.set(obj, value);
+            } catch (IllegalArgumentException | IllegalAccessException e) {
+                throw new ReflectionException(e);
+            }
+        }
+    }
+
+    private static final class MethodHandleFieldAccessor implements FieldAccessor {
+
+        private final FieldAccessor fallback;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        MethodHandleFieldAccessor(Field field) {
+            this.fallback = new ReflectionFieldAccessor(field);
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            this.getter = getter(field, isStatic);
+            this.setter = setter(field, isStatic);
+        }
+
+        private static MethodHandle getter(Field field, boolean isStatic) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectGetter(field);
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(methodType(Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        private static MethodHandle setter(Field field, boolean isStatic) {
+            if (Modifier.isFinal(field.getModifiers())) {
+                // Leave final semantics to Field.set
+                return null;
+            }
+            try {
+                MethodHandle handle = LOOKUP.unreflectSetter(field);
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            if (getter == null) {
+                return fallback.get(obj);
+            }
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw accessFailure(t);
+            }
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (setter == null) {
+                fallback.set(obj, value);
+                return;
+            }
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable t) {
+                throw accessFailure(t);
+            }
+        }
+    }
+
+    private static final class MethodHandleInvoker implements Invoker {
+
+        private final int parameterCount;
+
+        private final MethodHandle handle;
+
+        MethodHandleInvoker(int parameterCount, MethodHandle handle) {
+            this.parameterCount = parameterCount;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) {
+            int argCount = args != null ? args.length : 0;
+            if (argCount != parameterCount) {
+                throw new IllegalArgumentException("wrong number of arguments: expected " + parameterCount + ", got " + argCount);
+            }
+            try {
+                return (Object) handle.invokeExact(target, args);
+            } catch (Throwable t) {
+                throw invocationFailure(t);
+            }
+        }
+    }
+}
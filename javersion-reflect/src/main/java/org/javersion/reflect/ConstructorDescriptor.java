@@ -16,7 +16,6 @@
 package org.javersion.reflect;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
 import java.util.List;
@@ -33,6 +32,8 @@ public final class ConstructorDescriptor extends JavaMemberDescriptor<Constructo
     @Nonnull
     private final Constructor<?> constructor;
 
+    private volatile AccessStrategy.Invoker invoker;
+
     public ConstructorDescriptor(TypeDescriptor declaringType, Constructor<?> constructor) {
         super(declaringType);
         this.constructor = Check.notNull(constructor, "method");
@@ -53,11 +54,11 @@ public final class ConstructorDescriptor extends JavaMemberDescriptor<Constructo
     }
 
     public Object newInstance(Object... args) {
-        try {
-            return constructor.newInstance(args);
-        } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
-            throw new ReflectionException(e);
+        AccessStrategy.Invoker result = invoker;
+        if (result == null) {
+            invoker = result = getTypeDescriptors().getAccessStrategy().constructorInvoker(constructor);
         }
+        return result.invoke(null, args);
     }
 
     @Override
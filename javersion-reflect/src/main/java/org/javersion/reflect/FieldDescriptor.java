@@ -27,6 +27,8 @@ public final class FieldDescriptor extends JavaMemberDescriptor<Field> implement
     @Nonnull
     private final Field field;
 
+    private volatile AccessStrategy.FieldAccessor accessor;
+
     public FieldDescriptor(TypeDescriptor typeDescriptor, Field field) {
         super(typeDescriptor);
         this.field = Check.notNull(field, "field");
@@ -38,11 +40,7 @@ public final class FieldDescriptor extends JavaMemberDescriptor<Field> implement
     }
 
     public Object get(Object obj) {
-        try {
-            return field.get(obj);
-        } catch (IllegalAccessException e) {
-            throw new ReflectionException(e);
-        }
+        return accessor().get(obj);
     }
 
     @Override
@@ -70,11 +68,15 @@ public final class FieldDescriptor extends JavaMemberDescriptor<Field> implement
     }
 
     public void set(Object obj, Object value) {
-        try {
-            field.set(obj, value);
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new ReflectionException(e);
+        accessor().set(obj, value);
+    }
+
+    private AccessStrategy.FieldAccessor accessor() {
+        AccessStrategy.FieldAccessor result = accessor;
+        if (result == null) {
+            accessor = result = getTypeDescriptors().getAccessStrategy().fieldAccessor(field);
         }
+        return result;
     }
 
     public boolean isTransient() {
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.reflect;
+
+import java.util.Map;
+
+/**
+ * Field accessors of a class generated at compile time, e.g. by javersion-processor. Implementation
+ * is a public class with a public no-arg constructor named after the binary name of the class
+ * suffixed with {@value #SUFFIX}.
+ *
+ * @see AccessStrategy#generated(AccessStrategy)
+ */
+public interface GeneratedFieldAccessors {
+
+    String SUFFIX = "$$FieldAccessors";
+
+    /**
+     * @return accessors of (some) instance fields declared by the class, by field name
+     */
+    Map<String, AccessStrategy.FieldAccessor> getFieldAccessors();
+
+}
@@ -15,7 +15,6 @@
  */
 package org.javersion.reflect;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.List;
@@ -32,6 +31,8 @@ public final class MethodDescriptor extends JavaMemberDescriptor<Method> impleme
     @Nonnull
     private final Method method;
 
+    private volatile AccessStrategy.Invoker invoker;
+
     public MethodDescriptor(TypeDescriptor declaringType, Method method) {
         super(declaringType);
         this.method = Check.notNull(method, "method");
@@ -72,11 +73,11 @@ public final class MethodDescriptor extends JavaMemberDescriptor<Method> impleme
     }
 
     public Object invoke(Object object, Object... args) {
-        try {
-            return method.invoke(object, args);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new ReflectionException(e);
+        AccessStrategy.Invoker result = invoker;
+        if (result == null) {
+            invoker = result = getTypeDescriptors().getAccessStrategy().methodInvoker(method);
         }
+        return result.invoke(object, args);
     }
 
     @Override
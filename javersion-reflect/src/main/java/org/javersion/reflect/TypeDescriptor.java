@@ -62,6 +62,16 @@ public final class TypeDescriptor implements ElementDescriptor {
 
     protected final TypeDescriptors typeDescriptors;
 
+    // Members are scanned lazily on first request and memoized. Concurrent first requests may both scan.
+
+    private volatile Map<String, FieldDescriptor> fields;
+
+    private volatile Map<MethodSignature, MethodDescriptor> methods;
+
+    private volatile Map<ConstructorSignature, ConstructorDescriptor> constructors;
+
+    private volatile Map<String, BeanProperty> properties;
+
     public TypeDescriptor(TypeDescriptors typeDescriptors, TypeToken<?> typeToken) {
         this.typeDescriptors = Check.notNull(typeDescriptors, "typeDescriptors");
         this.typeToken = Check.notNull(typeToken, "typeToken");
@@ -88,9 +98,13 @@ public final class TypeDescriptor implements ElementDescriptor {
     }
 
     public Map<String, FieldDescriptor> getFields() {
-        Map<String, FieldDescriptor> result = new HashMap<>();
-        collectFields(typeToken.getRawType(), result);
-        return ImmutableSortedMap.copyOf(result);
+        Map<String, FieldDescriptor> result = fields;
+        if (result == null) {
+            Map<String, FieldDescriptor> allFields = new HashMap<>();
+            collectFields(typeToken.getRawType(), allFields);
+            fields = result = ImmutableSortedMap.copyOf(allFields);
+        }
+        return result;
     }
 
     public String getSimpleName() {
@@ -108,22 +122,38 @@ public final class TypeDescriptor implements ElementDescriptor {
     }
 
     public Map<ConstructorSignature, ConstructorDescriptor> getConstructors() {
-        ImmutableMap.Builder<ConstructorSignature, ConstructorDescriptor> result = ImmutableMap.builder();
-        for (Constructor<?> constructor : getRawType().getDeclaredConstructors()) {
-            if (typeDescriptors.constructorFilter.apply(constructor)) {
-                result.put(new ConstructorSignature(constructor), new ConstructorDescriptor(this, constructor));
+        Map<ConstructorSignature, ConstructorDescriptor> result = constructors;
+        if (result == null) {
+            ImmutableMap.Builder<ConstructorSignature, ConstructorDescriptor> builder = ImmutableMap.builder();
+            for (Constructor<?> constructor : getRawType().getDeclaredConstructors()) {
+                if (typeDescriptors.constructorFilter.apply(constructor)) {
+                    builder.put(new ConstructorSignature(constructor), new ConstructorDescriptor(this, constructor));
+                }
             }
+            constructors = result = builder.build();
         }
-        return result.build();
+        return result;
     }
 
     public Map<MethodSignature, MethodDescriptor> getMethods() {
-        Map<MethodSignature, MethodDescriptor> result = new HashMap<>();
-        collectMethods(getRawType(), result);
-        return ImmutableMap.copyOf(result);
+        Map<MethodSignature, MethodDescriptor> result = methods;
+        if (result == null) {
+            Map<MethodSignature, MethodDescriptor> allMethods = new HashMap<>();
+            collectMethods(getRawType(), allMethods);
+            methods = result = ImmutableMap.copyOf(allMethods);
+        }
+        return result;
     }
 
     public Map<String, BeanProperty> getProperties() {
+        Map<String, BeanProperty> result = properties;
+        if (result == null) {
+            properties = result = collectProperties();
+        }
+        return result;
+    }
+
+    private Map<String, BeanProperty> collectProperties() {
         try {
             ImmutableMap.Builder<String, BeanProperty> properties = ImmutableMap.builder();
             BeanInfo beanInfo = Introspector.getBeanInfo(getRawType(), Object.class);
@@ -16,14 +16,18 @@
 package org.javersion.reflect;
 
 import java.lang.reflect.*;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.javersion.util.Check;
 
 import com.google.common.base.Predicate;
-import com.google.common.collect.Maps;
 import com.google.common.reflect.TypeToken;
 
+/**
+ * Cache of TypeDescriptors. Descriptors (and the classes they describe) are reachable as long as
+ * their TypeDescriptors instance is, and no longer.
+ */
 public final class TypeDescriptors {
 
     public static final Predicate<Member> NON_SYNTHETIC = member -> !member.isSynthetic();
@@ -35,7 +39,16 @@ public final class TypeDescriptors {
         return DEFAULT.get(clazz);
     }
 
-    private final Map<TypeToken<?>, TypeDescriptor> cache = Maps.newHashMap();
+    /**
+     * Descriptors of raw classes. Not a ClassValue: values refer back to this TypeDescriptors, so
+     * they would keep it reachable from the described classes for as long as the classes are loaded.
+     */
+    private final ConcurrentMap<Class<?>, TypeDescriptor> classCache = new ConcurrentHashMap<>();
+
+    /**
+     * Descriptors of parameterized types.
+     */
+    private final ConcurrentMap<TypeToken<?>, TypeDescriptor> cache = new ConcurrentHashMap<>();
 
     protected final Predicate<? super Field> fieldFilter;
 
@@ -43,41 +56,67 @@ public final class TypeDescriptors {
 
     protected final Predicate<? super Constructor> constructorFilter;
 
+    protected final AccessStrategy accessStrategy;
+
 
     public TypeDescriptors() {
         this(NON_SYNTHETIC);
     }
 
     public TypeDescriptors(Predicate<? super Member> memberFilter) {
-        this(memberFilter, memberFilter, memberFilter);
+        this(memberFilter, AccessStrategy.REFLECTION);
+    }
+
+    public TypeDescriptors(Predicate<? super Member> memberFilter, AccessStrategy accessStrategy) {
+        this(memberFilter, memberFilter, memberFilter, accessStrategy);
     }
 
     public TypeDescriptors(Predicate<? super Field> fieldFilter,
                            Predicate<? super Method> methodFilter,
                            Predicate<? super Constructor> constructorFilter) {
+        this(fieldFilter, methodFilter, constructorFilter, AccessStrategy.REFLECTION);
+    }
+
+    public TypeDescriptors(Predicate<? super Field> fieldFilter,
+                           Predicate<? super Method> methodFilter,
+                           Predicate<? super Constructor> constructorFilter,
+                           AccessStrategy accessStrategy) {
         this.fieldFilter = Check.notNull(fieldFilter, "fieldFilter");
         this.methodFilter = Check.notNull(methodFilter, "methodFilter");
         this.constructorFilter = Check.notNull(constructorFilter, "constructorFilter");
+        this.accessStrategy = Check.notNull(accessStrategy, "accessStrategy");
+    }
+
+    public AccessStrategy getAccessStrategy() {
+        return accessStrategy;
     }
 
 
     public TypeDescriptor get(Class<?> clazz) {
-        return get(TypeToken.of(clazz));
+        TypeDescriptor descriptor = classCache.get(clazz);
+        if (descriptor == null) {
+            descriptor = classCache.computeIfAbsent(clazz, key -> new TypeDescriptor(this, TypeToken.of(key)));
+        }
+        return descriptor;
     }
 
     public TypeDescriptor get(Type type) {
+        if (type instanceof Class) {
+            return get((Class<?>) type);
+        }
         return get(TypeToken.of(type));
     }
 
     public TypeDescriptor get(TypeToken<?> typeToken) {
-        synchronized (cache) {
-            TypeDescriptor descriptor = cache.get(typeToken);
-            if (descriptor == null) {
-                descriptor = new TypeDescriptor(this, typeToken);
-                cache.put(typeToken, descriptor);
-            }
-            return descriptor;
+        Type type = typeToken.getType();
+        if (type instanceof Class) {
+            return get((Class<?>) type);
+        }
+        TypeDescriptor descriptor = cache.get(typeToken);
+        if (descriptor == null) {
+            descriptor = cache.computeIfAbsent(typeToken, key -> new TypeDescriptor(this, key));
         }
+        return descriptor;
     }
 
 
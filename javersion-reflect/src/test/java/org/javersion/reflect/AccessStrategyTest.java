@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.reflect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.javersion.reflect.AccessStrategy.METHOD_HANDLES;
+import static org.javersion.reflect.TypeDescriptors.NON_SYNTHETIC;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+public class AccessStrategyTest {
+
+    public static class Target {
+
+        private static String staticField = "static";
+
+        private static final String CONSTANT = "constant";
+
+        private String name;
+
+        private int count;
+
+        private final String finalField = "final";
+
+        private Target() {}
+
+        private Target(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        private String describe(String prefix, int times) {
+            return prefix + name + times * count;
+        }
+
+        private void increment() {
+            count++;
+        }
+
+        private static String staticMethod(String str) {
+            return str.toUpperCase();
+        }
+
+        private void fail() {
+            throw new IllegalStateException("fail");
+        }
+
+        private void error() {
+            throw new AssertionError("error");
+        }
+    }
+
+    private static final TypeDescriptors TYPES = new TypeDescriptors(NON_SYNTHETIC, METHOD_HANDLES);
+
+    private static final TypeDescriptor type = TYPES.get(Target.class);
+
+    @Test
+    public void strategy_of_type_descriptors() {
+        assertThat(TypeDescriptors.DEFAULT.getAccessStrategy()).isSameAs(AccessStrategy.REFLECTION);
+        assertThat(TYPES.getAccessStrategy()).isSameAs(METHOD_HANDLES);
+    }
+
+    @Test
+    public void get_and_set_fields() {
+        Target target = new Target("name", 1);
+        FieldDescriptor name = type.getField("name");
+        FieldDescriptor count = type.getField("count");
+
+        assertThat(name.get(target)).isEqualTo("name");
+        assertThat(count.get(target)).isEqualTo(1);
+
+        name.set(target, "other");
+        count.set(target, 2);
+        assertThat(target.name).isEqualTo("other");
+        assertThat(target.count).isEqualTo(2);
+    }
+
+    @Test
+    public void get_and_set_static_field() {
+        FieldDescriptor field = type.getField("staticField");
+        assertThat(field.getStatic()).isEqualTo("static");
+        field.setStatic("changed");
+        try {
+            assertThat(Target.staticField).isEqualTo("changed");
+        } finally {
+            Target.staticField = "static";
+        }
+    }
+
+    @Test(expected = ReflectionException.class)
+    public void set_static_final_field() {
+        type.getField("CONSTANT").setStatic("changed");
+    }
+
+    @Test
+    public void set_final_instance_field() {
+        Target target = new Target();
+        type.getField("finalField").set(target, "changed");
+        assertThat(type.getField("finalField").get(target)).isEqualTo("changed");
+    }
+
+    @Test(expected = ReflectionException.class)
+    public void get_value_from_wrong_type() {
+        type.getField("name").get(new Object());
+    }
+
+    @Test(expected = ReflectionException.class)
+    public void set_value_of_wrong_type() {
+        type.getField("count").set(new Target(), "1");
+    }
+
+    @Test
+    public void generated_falls_back_without_generated_accessors() {
+        TypeDescriptor generated = new TypeDescriptors(NON_SYNTHETIC, AccessStrategy.generated(METHOD_HANDLES)).get(Target.class);
+        Target target = new Target("name", 1);
+        generated.getField("count").set(target, 2);
+        assertThat(generated.getField("name").get(target)).isEqualTo("name");
+        assertThat(target.count).isEqualTo(2);
+        assertThat(generated.getDefaultConstructor().newInstance()).isInstanceOf(Target.class);
+    }
+
+    @Test
+    public void invoke_methods() {
+        Target target = new Target("name", 2);
+        MethodDescriptor describe = type.getMethods().get(new MethodSignature("describe", String.class, int.class));
+        assertThat(describe.invoke(target, "prefix-", 3)).isEqualTo("prefix-name6");
+
+        MethodDescriptor increment = type.getMethods().get(new MethodSignature("increment"));
+        assertThat(increment.invoke(target)).isNull();
+        assertThat(target.count).isEqualTo(3);
+
+        MethodDescriptor staticMethod = type.getMethods().get(new MethodSignature("staticMethod", String.class));
+        assertThat(staticMethod.invokeStatic("abc")).isEqualTo("ABC");
+    }
+
+    @Test
+    public void exception_from_method_is_wrapped() {
+        assertExceptionFromMethodIsWrapped(type);
+        assertExceptionFromMethodIsWrapped(TypeDescriptors.DEFAULT.get(Target.class));
+    }
+
+    private static void assertExceptionFromMethodIsWrapped(TypeDescriptor type) {
+        MethodDescriptor fail = type.getMethods().get(new MethodSignature("fail"));
+        try {
+            fail.invoke(new Target());
+        } catch (ReflectionException e) {
+            assertThat(e.getCause()).isInstanceOf(InvocationTargetException.class);
+            assertThat(e.getCause().getCause()).isInstanceOf(IllegalStateException.class);
+            return;
+        }
+        throw new AssertionError("expected ReflectionException");
+    }
+
+    @Test
+    public void error_from_method_is_propagated() {
+        assertErrorFromMethodIsPropagated(type);
+        assertErrorFromMethodIsPropagated(TypeDescriptors.DEFAULT.get(Target.class));
+    }
+
+    private static void assertErrorFromMethodIsPropagated(TypeDescriptor type) {
+        MethodDescriptor error = type.getMethods().get(new MethodSignature("error"));
+        try {
+            error.invoke(new Target());
+        } catch (AssertionError e) {
+            assertThat(e.getMessage()).isEqualTo("error");
+            return;
+        }
+        throw new AssertionError("expected AssertionError");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invoke_with_wrong_number_of_arguments() {
+        type.getMethods().get(new MethodSignature("staticMethod", String.class)).invokeStatic();
+    }
+
+    @Test
+    public void new_instance() {
+        ConstructorDescriptor constructor = type.getConstructors().get(new ConstructorSignature(String.class, int.class));
+        Target target = (Target) constructor.newInstance("name", 3);
+        assertThat(target.name).isEqualTo("name");
+        assertThat(target.count).isEqualTo(3);
+
+        assertThat(type.getDefaultConstructor().newInstance()).isInstanceOf(Target.class);
+    }
+}
@@ -62,6 +62,7 @@ public class ConstructorTest {
     public void identity() {
         Map<ConstructorSignature, ConstructorDescriptor> constructors = getConstructors();
         EqualsVerifier.forClass(ConstructorDescriptor.class)
+                .withPrefabValues(TypeDescriptor.class, DEFAULT.get(String.class), DEFAULT.get(Integer.class))
                 .withPrefabValues(Constructor.class,
                         constructors.get(DEFAULT_CONSTRUCTOR).getElement(),
                         constructors.get(STRING_CONSTRUCTOR).getElement())
@@ -130,6 +130,7 @@ public class FieldDescriptorTest {
     public void identity() {
         Map<String, FieldDescriptor> fields = type.getFields();
         EqualsVerifier.forClass(FieldDescriptor.class)
+                .withPrefabValues(TypeDescriptor.class, DEFAULT.get(String.class), DEFAULT.get(Integer.class))
                 .withPrefabValues(Field.class, fields.get("privateField").getElement(), fields.get("transientField").getElement())
                 .verify();
     }
@@ -92,6 +92,7 @@ public class MethodDescriptorTest {
     public void identity() {
         Map<MethodSignature, MethodDescriptor> methods = getTypeDescriptor().getMethods();
         EqualsVerifier.forClass(MethodDescriptor.class)
+                .withPrefabValues(TypeDescriptor.class, DEFAULT.get(String.class), DEFAULT.get(Integer.class))
                 .withPrefabValues(Method.class,
                         methods.get(new MethodSignature("equals", Object.class)).getElement(),
                         methods.get(new MethodSignature("hashCode")).getElement())
@@ -102,6 +103,7 @@ public class MethodDescriptorTest {
     public void parameter_identity() {
         List<ParameterDescriptor> parameters = getMethodDescriptor().getParameters();
         EqualsVerifier.forClass(ParameterDescriptor.class)
+                .withPrefabValues(TypeDescriptor.class, DEFAULT.get(String.class), DEFAULT.get(Integer.class))
                 .withPrefabValues(Parameter.class, parameters.get(0).getElement(), parameters.get(1).getElement())
                 .verify();
     }
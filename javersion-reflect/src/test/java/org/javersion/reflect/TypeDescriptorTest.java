@@ -19,11 +19,15 @@ import static com.google.common.collect.Sets.newHashSet;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.junit.Test;
 
+import com.google.common.reflect.TypeToken;
+
 public class TypeDescriptorTest {
 
     static final TypeDescriptors TYPES = new TypeDescriptors(member -> {
@@ -241,4 +245,60 @@ public class TypeDescriptorTest {
         assertThat(annotations).hasSize(1);
         assertThat(annotations.get(0)).isInstanceOf(Deprecated.class);
     }
+
+    @Test
+    public void descriptors_are_cached() {
+        TypeDescriptor type = TYPES.get(Generic.class);
+        assertThat(TYPES.get(TypeToken.of(Generic.class))).isSameAs(type);
+        assertThat(TYPES.get((java.lang.reflect.Type) Generic.class)).isSameAs(type);
+
+        TypeDescriptor mapType = type.getField("map").getType();
+        assertThat(TYPES.get(new TypeToken<Map<String, Long>>() {})).isSameAs(mapType);
+        assertThat(mapType).isNotEqualTo(TYPES.get(Map.class));
+    }
+
+    @Test
+    public void members_are_memoized() {
+        TypeDescriptor type = TYPES.get(Generic.class);
+        assertThat(type.getFields()).isSameAs(type.getFields());
+        assertThat(type.getMethods()).isSameAs(type.getMethods());
+        assertThat(type.getConstructors()).isSameAs(type.getConstructors());
+        assertThat(type.getProperties()).isSameAs(type.getProperties());
+        assertThat(type.getField("map")).isSameAs(type.getField("map"));
+    }
+
+    @Test
+    public void concurrent_lookups_return_same_descriptor() throws Exception {
+        TypeDescriptors typeDescriptors = new TypeDescriptors();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<TypeDescriptor>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return typeDescriptors.get(new TypeToken<Map<String, Long>>() {});
+                }));
+            }
+            start.countDown();
+            TypeDescriptor first = results.get(0).get();
+            for (Future<TypeDescriptor> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void type_descriptors_are_not_retained_by_described_classes() {
+        TypeDescriptors typeDescriptors = new TypeDescriptors();
+        typeDescriptors.get(String.class).getFields();
+        WeakReference<TypeDescriptors> reference = new WeakReference<>(typeDescriptors);
+        typeDescriptors = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+        }
+        assertThat(reference.get()).isNull();
+    }
 }
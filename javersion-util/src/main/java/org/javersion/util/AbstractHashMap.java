@@ -76,6 +76,16 @@ public abstract class AbstractHashMap<K, V, This extends AbstractHashMap<K, V, T
         return (This) doAddAll(updateContext, transform(entries.iterator(), TO_ENTRY));
     }
 
+    /**
+     * Structural merge: subtrees shared between this and <code>map</code> are skipped
+     * without visiting (or calling merger for) their entries.
+     */
+    @SuppressWarnings("unchecked")
+    public This mergeAll(AbstractHashMap<K, V, ?> map, Merger<Map.Entry<K, V>> merger) {
+        final UpdateContext<Map.Entry<K, V>> updateContext = updateContext(32, merger);
+        return (This) doMergeAll(updateContext, map);
+    }
+
     protected UpdateContext<Map.Entry<K, V>> updateContext(int expectedSize, Merger<Map.Entry<K, V>> merger) {
         return new UpdateContext<>(expectedSize, merger);
     }
@@ -100,6 +110,14 @@ public abstract class AbstractHashMap<K, V, This extends AbstractHashMap<K, V, T
         return root().find(key) != null;
     }
 
+    /**
+     * Structural diff from this map to <code>to</code>. Cost is proportional to the
+     * changes, if the maps share structure (e.g. one is derived from the other).
+     */
+    public void diff(AbstractHashMap<K, V, ?> to, DiffHandler<Map.Entry<K, V>> handler) {
+        doDiff(to, handler);
+    }
+
     public Iterator<Map.Entry<K, V>> iterator() {
         return transform(doIterator(), Map.Entry.class::cast);
     }
@@ -140,6 +158,11 @@ public abstract class AbstractHashMap<K, V, This extends AbstractHashMap<K, V, T
             return "" + key + ": " + value;
         }
 
+        @Override
+        protected boolean hasEqualValue(EntryNode<K, V> other) {
+            return Objects.equals(value, other.value);
+        }
+
         @Override
         public Node<K, EntryNode<K, V>> assocInternal(final UpdateContext<? super EntryNode<K, V>>  currentContext, final int shift, final int hash, final EntryNode<K, V> newEntry) {
             if (Objects.equals(key, newEntry.key)) {
@@ -78,6 +78,52 @@ public abstract class AbstractHashTrie<K, E extends EntryNode<K, E>, This extend
         return commitAndReturn(updateContext, newRoot, size);
     }
 
+    /**
+     * Structural merge: subtrees of other that are shared (reference equal) with this are skipped
+     * without visiting their entries. Other entries are merged as with {@link #doAddAll(UpdateContext, Iterator)}.
+     */
+    protected final This doMergeAll(UpdateContext<? super E> updateContext, AbstractHashTrie<K, E, ?> other) {
+        int[] size = { size() };
+        Node<K, E> newRoot = mergeNode(updateContext, root(), other.root(), 0, size);
+        return commitAndReturn(updateContext, newRoot, size[0]);
+    }
+
+    private static <K, E extends EntryNode<K, E>> Node<K, E> mergeNode(UpdateContext<? super E> updateContext, Node<K, E> node, Node<K, E> other, int shift, int[] size) {
+        if (node == other || other == null) {
+            return node;
+        }
+        if (node instanceof BranchNode && other instanceof BranchNode) {
+            Node<K, E> result = node;
+            for (int i=0; i < 32; i++) {
+                Node<K, E> otherChild = ((BranchNode<K, E>) other).childAt(i);
+                if (otherChild != null) {
+                    // assocAll may replace a HashNode with an ArrayNode, both are branches
+                    BranchNode<K, E> branch = (BranchNode<K, E>) result;
+                    Node<K, E> child = branch.childAt(i);
+                    if (child == null) {
+                        result = assocAll(updateContext, branch, otherChild, shift, size);
+                    } else if (child != otherChild) {
+                        Node<K, E> newChild = mergeNode(updateContext, child, otherChild, shift + Node.SHIFT_INCREMENT, size);
+                        if (newChild != child) {
+                            result = branch.replaceChild(updateContext, i, newChild);
+                        }
+                    }
+                }
+            }
+            return result;
+        } else {
+            return assocAll(updateContext, node, other, shift, size);
+        }
+    }
+
+    private static <K, E extends EntryNode<K, E>> Node<K, E> assocAll(UpdateContext<? super E> updateContext, Node<K, E> node, Node<K, E> entries, int shift, int[] size) {
+        for (E entry : entries) {
+            node = node.assocInternal(updateContext, shift, entry.getHash(), entry);
+            size[0] += updateContext.getChangeAndReset();
+        }
+        return node;
+    }
+
     protected final This doRemove(UpdateContext<? super E> updateContext, Object key) {
         Node<K, E> newRoot = root().dissoc(updateContext, key);
         return commitAndReturn(updateContext, newRoot, size() + updateContext.getChangeAndReset());
@@ -98,6 +144,46 @@ public abstract class AbstractHashTrie<K, E extends EntryNode<K, E>, This extend
         updateContext.commit();
     }
 
+    /**
+     * Structural diff: subtrees that are shared (reference equal) between this and other are skipped.
+     */
+    protected final void doDiff(AbstractHashTrie<K, E, ?> other, DiffHandler<? super E> handler) {
+        diff(root(), other.root(), 0, handler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, E extends EntryNode<K, E>> void diff(Node<K, E> from, Node<K, E> to, int shift, DiffHandler<? super E> handler) {
+        if (from == to) {
+            return;
+        }
+        if (from == null) {
+            from = EMPTY_NODE;
+        }
+        if (to == null) {
+            to = EMPTY_NODE;
+        }
+        if (from instanceof BranchNode && to instanceof BranchNode) {
+            BranchNode<K, E> fromBranch = (BranchNode<K, E>) from, toBranch = (BranchNode<K, E>) to;
+            for (int i=0; i < 32; i++) {
+                diff(fromBranch.childAt(i), toBranch.childAt(i), shift + Node.SHIFT_INCREMENT, handler);
+            }
+        } else {
+            for (E oldEntry : from) {
+                E newEntry = to.findInternal(shift, oldEntry.getHash(), oldEntry.key);
+                if (newEntry == null) {
+                    handler.removed(oldEntry);
+                } else if (newEntry != oldEntry && !oldEntry.hasEqualValue(newEntry)) {
+                    handler.changed(oldEntry, newEntry);
+                }
+            }
+            for (E newEntry : to) {
+                if (from.findInternal(shift, newEntry.getHash(), newEntry.key) == null) {
+                    handler.added(newEntry);
+                }
+            }
+        }
+    }
+
     static abstract class Node<K, E extends EntryNode<K, E>> implements Iterable<E> {
 
         static final int SHIFT_INCREMENT = 5;
@@ -144,6 +230,23 @@ public abstract class AbstractHashTrie<K, E extends EntryNode<K, E>, This extend
 
     }
 
+    /**
+     * Node whose children are addressed by the 5 bit index of the hash at its level.
+     */
+    static abstract class BranchNode<K, E extends EntryNode<K, E>> extends Node<K, E> {
+
+        /**
+         * @return child at <code>bitIndex</code> or null
+         */
+        abstract Node<K, E> childAt(int bitIndex);
+
+        /**
+         * @return node with the existing child at <code>bitIndex</code> replaced by <code>newChild</code>
+         */
+        abstract Node<K, E> replaceChild(UpdateContext<? super E> currentContext, int bitIndex, Node<K, E> newChild);
+
+    }
+
     @SuppressWarnings("rawtypes")
     private static final Iterator<EntryNode> EMTPY_ITER = Collections.emptyIterator();
 
@@ -249,10 +352,17 @@ public abstract class AbstractHashTrie<K, E extends EntryNode<K, E>, This extend
         protected Node<K, E>[] getChildren() {
             return null;
         }
+
+        /**
+         * @return true if other (having equal key) is equal to this entry.
+         */
+        protected boolean hasEqualValue(E other) {
+            return true;
+        }
     }
 
 
-    static final class HashNode<K, E extends EntryNode<K, E>> extends Node<K, E> {
+    static final class HashNode<K, E extends EntryNode<K, E>> extends BranchNode<K, E> {
 
         final UpdateContext<? super E>  updateContext;
 
@@ -433,9 +543,22 @@ public abstract class AbstractHashTrie<K, E extends EntryNode<K, E>, This extend
             return children;
         }
 
+        @Override
+        Node<K, E> childAt(int bitIndex) {
+            int bit = 1 << bitIndex;
+            return (bitmap & bit) != 0 ? children[index(bitmap, bit)] : null;
+        }
+
+        @Override
+        Node<K, E> replaceChild(UpdateContext<? super E> currentContext, int bitIndex, Node<K, E> newChild) {
+            HashNode<K, E> editable = cloneForReplace(currentContext);
+            editable.children[index(bitmap, 1 << bitIndex)] = newChild;
+            return editable;
+        }
+
     }
 
-    static final class ArrayNode<K, E extends EntryNode<K, E>> extends Node<K, E> {
+    static final class ArrayNode<K, E extends EntryNode<K, E>> extends BranchNode<K, E> {
 
         final UpdateContext<? super E>  updateContext;
 
@@ -544,6 +667,23 @@ public abstract class AbstractHashTrie<K, E extends EntryNode<K, E>, This extend
             return children;
         }
 
+        @Override
+        Node<K, E> childAt(int bitIndex) {
+            return children[bitIndex];
+        }
+
+        @Override
+        Node<K, E> replaceChild(UpdateContext<? super E> currentContext, int bitIndex, Node<K, E> newChild) {
+            if (isEditInPlace(currentContext)) {
+                this.children[bitIndex] = newChild;
+                return this;
+            } else {
+                Node<K, E>[] newChildren = this.children.clone();
+                newChildren[bitIndex] = newChild;
+                return new ArrayNode<>(currentContext, newChildren, childCount);
+            }
+        }
+
     }
 
     static final class CollisionNode<K, E extends EntryNode<K, E>> extends Node<K, E> {
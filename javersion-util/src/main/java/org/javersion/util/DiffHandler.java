@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 Samppa Saarela
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.javersion.util;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Callback for structural diff of hash tries. Subtrees that are shared
+ * between the compared tries are skipped without visiting their entries.
+ */
+@NotThreadSafe
+public interface DiffHandler<T> {
+
+    default void added(T newEntry) {
+    }
+
+    default void removed(T oldEntry) {
+    }
+
+    default void changed(T oldEntry, T newEntry) {
+    }
+
+}
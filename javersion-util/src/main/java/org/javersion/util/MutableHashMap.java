@@ -146,6 +146,10 @@ public class MutableHashMap<K, V> extends AbstractMap<K, V> implements MutableMa
         map.mergeAll(entries, merger);
     }
 
+    public void mergeAll(PersistentHashMap<K, V> m, Merger<java.util.Map.Entry<K, V>> merger) {
+        map.mergeAll(m, merger);
+    }
+
     @Override
     public PersistentHashMap<K, V> toPersistentMap() {
         return map.toPersistentMap();
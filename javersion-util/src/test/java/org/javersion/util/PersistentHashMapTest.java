@@ -341,6 +341,107 @@ public class PersistentHashMapTest extends AbstractPersistentMapTest<PersistentH
         assertThat(results, equalTo(ImmutableSet.of(k1, k2, k3, k4, 1, 2, 3, 4)));
     }
 
+    @Test
+    public void structural_diff() {
+        PersistentHashMap<Object, Object> from = PersistentHashMap.empty();
+        for (int i=0; i < 2000; i++) {
+            from = from.assoc(i, i);
+        }
+        HashKey c1 = new HashKey(5), c2 = new HashKey(5);
+        from = from.assoc(c1, c1);
+
+        PersistentHashMap<Object, Object> to = from
+                .dissoc(7)
+                .dissoc(c1)
+                .assoc(c2, c2)
+                .assoc(11, "changed")
+                .assoc(13, 13)
+                .assoc(3000, 3000);
+
+        Map<Object, Object> diff = new java.util.HashMap<>();
+        from.diff(to, recordingHandler(diff));
+        assertThat(diff, equalTo(mapOf(7, null, c1, null, c2, c2, 11, "changed", 3000, 3000)));
+
+        diff.clear();
+        to.diff(from, recordingHandler(diff));
+        assertThat(diff, equalTo(mapOf(7, 7, c1, c1, c2, null, 11, 11, 3000, null)));
+
+        diff.clear();
+        from.diff(from, recordingHandler(diff));
+        assertThat(diff.isEmpty(), equalTo(true));
+
+        diff.clear();
+        PersistentHashMap.empty().diff(to.dissoc(11), recordingHandler(diff));
+        assertThat(diff.size(), equalTo(to.size() - 1));
+    }
+
+    @Test
+    public void structural_merge() {
+        PersistentHashMap<Object, Object> base = PersistentHashMap.empty();
+        for (int i=0; i < 2000; i++) {
+            base = base.assoc(i, i);
+        }
+        HashKey c1 = new HashKey(100000), c2 = new HashKey(100000);
+        PersistentHashMap<Object, Object> left = base.assoc(c1, c1).assoc(1, "left").assoc(2, "left").dissoc(3);
+        PersistentHashMap<Object, Object> right = base.assoc(c2, c2).assoc(1, "right").assoc(4, "right").assoc(5000, 5000);
+
+        List<Object> mergedKeys = Lists.newArrayList();
+        Merger<Map.Entry<Object, Object>> merger = new Merger<Map.Entry<Object, Object>>() {
+            @Override
+            public boolean merge(Map.Entry<Object, Object> oldEntry, Map.Entry<Object, Object> newEntry) {
+                mergedKeys.add(newEntry.getKey());
+                return !"left".equals(oldEntry.getValue());
+            }
+        };
+        PersistentHashMap<Object, Object> merged = left.mergeAll(right, merger);
+
+        assertThat(Sets.newHashSet(mergedKeys), equalTo(ImmutableSet.of(1, 2, 4)));
+        assertThat(merged.size(), equalTo(2003));
+        assertThat(merged.get(1), equalTo("left"));
+        assertThat(merged.get(2), equalTo("left"));
+        assertThat(merged.get(3), equalTo(3));
+        assertThat(merged.get(4), equalTo("right"));
+        assertThat(merged.get(c1), sameInstance(c1));
+        assertThat(merged.get(c2), sameInstance(c2));
+        assertThat(merged.get(5000), equalTo(5000));
+
+        assertThat(base.mergeAll(base, merger), sameInstance(base));
+
+        MutableHashMap<Object, Object> mutable = left.toMutableMap();
+        mutable.mergeAll(right, merger);
+        assertThat(mutable.toPersistentMap().asMap(), equalTo(merged.asMap()));
+    }
+
+    private static Map<Object, Object> mapOf(Object... keysAndValues) {
+        Map<Object, Object> map = new java.util.HashMap<>();
+        for (int i=0; i < keysAndValues.length; i+=2) {
+            map.put(keysAndValues[i], keysAndValues[i+1]);
+        }
+        return map;
+    }
+
+    private static DiffHandler<Map.Entry<Object, Object>> recordingHandler(Map<Object, Object> diff) {
+        return new DiffHandler<Map.Entry<Object, Object>>() {
+            @Override
+            public void added(Map.Entry<Object, Object> newEntry) {
+                assertThat(diff.containsKey(newEntry.getKey()), equalTo(false));
+                diff.put(newEntry.getKey(), newEntry.getValue());
+            }
+
+            @Override
+            public void removed(Map.Entry<Object, Object> oldEntry) {
+                assertThat(diff.containsKey(oldEntry.getKey()), equalTo(false));
+                diff.put(oldEntry.getKey(), null);
+            }
+
+            @Override
+            public void changed(Map.Entry<Object, Object> oldEntry, Map.Entry<Object, Object> newEntry) {
+                assertThat(diff.containsKey(newEntry.getKey()), equalTo(false));
+                diff.put(newEntry.getKey(), newEntry.getValue());
+            }
+        };
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     protected void assertMapProperties(PersistentMap<Integer, Integer> map) {